@@ -3,20 +3,30 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EventStreamProxy;
 
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final EventStreamProxy eventStreamProxy;
+
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
         super(
@@ -25,38 +35,109 @@ public class BookingClient extends BaseClient {
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
                         .build()
         );
+        this.eventStreamProxy = new EventStreamProxy(serverUrl + API_PREFIX);
+    }
+
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(long userId, String lastEventId) {
+        return eventStreamProxy.open("/events", userId, lastEventId);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, String view) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "view", view
+        );
+        return get("?state={state}&from={from}&size={size}&view={view}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, String cursor, Integer size, String view) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size,
+                "view", view
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&cursor={cursor}&size={size}&view={view}", userId, parameters);
     }
 
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> bookItem(long userId, String idempotencyKey, BookItemRequestDto requestDto) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", idempotencyKey);
+        return post("", userId, requestDto, headers);
+    }
+
+    public void exportBookings(long userId, OutputStream out) {
+        stream("/export", userId, MediaType.APPLICATION_NDJSON, out);
+    }
+
+    public void exportBookingsByOwner(long userId, OutputStream out) {
+        stream("/owner/export", userId, MediaType.APPLICATION_NDJSON, out);
+    }
+
+    public ResponseEntity<Object> getSummary(long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getSummaryByOwner(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<Object> getChanges(String path, long userId, String since, Integer limit) {
+        if (since == null) {
+            return get(path + "?limit={limit}", userId, Map.of("limit", limit));
+        }
+        Map<String, Object> parameters = Map.of(
+                "since", since,
+                "limit", limit
+        );
+        return get(path + "?since={since}&limit={limit}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approve(Long bookingId, Long ownerId, boolean approved) {
+    public ResponseEntity<Object> approve(Long bookingId, Long ownerId, boolean approved, Long version) {
+        if (version != null) {
+            Map<String, Object> parameters = Map.of(
+                    "approved", approved,
+                    "version", version
+            );
+            return patch("/" + bookingId + "?approved={approved}&version={version}", ownerId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> ownerItemsBookingLists(Long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> approveAll(long ownerId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", ownerId, decisions);
+    }
+
+    public ResponseEntity<Object> ownerItemsBookingLists(Long userId, BookingState state, Integer from, Integer size, String view) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "view", view
+        );
+        return get("/owner?state={state}&from={from}&size={size}&view={view}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> ownerItemsBookingLists(Long userId, BookingState state, String cursor, Integer size, String view) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size,
+                "view", view
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&cursor={cursor}&size={size}&view={view}", userId, parameters);
     }
 }
@@ -3,17 +3,26 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.BadRequestException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -23,25 +32,91 @@ import javax.validation.constraints.PositiveOrZero;
 public class BookingController {
 	private final BookingClient bookingClient;
 	private static final String HEADER = "X-Sharer-User-Id";
+	private static final int MAX_BATCH_SIZE = 100;
+	private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+	private static final int MAX_CHANGES_LIMIT = 500;
 
 	@GetMapping
 	public ResponseEntity<Object> getBookings(@RequestHeader(HEADER) long userId,
 											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
 											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+											  @RequestParam(name = "cursor", required = false) String cursor,
+											  @RequestParam(name = "view", defaultValue = "full") String view) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+		if (cursor != null) {
+			return bookingClient.getBookings(userId, state, cursor, size, view);
+		}
+		return bookingClient.getBookings(userId, state, from, size, view);
 	}
 
 	@PostMapping
 	public ResponseEntity<Object> bookItem(@RequestHeader(HEADER) long userId,
+										   @RequestHeader(value = "Idempotency-Key", required = false)
+										   @Size(max = MAX_IDEMPOTENCY_KEY_LENGTH) String idempotencyKey,
 										   @RequestBody @Valid BookItemRequestDto requestDto) {
-		log.info("Creating booking {}, userId={}", requestDto, userId);
+		log.info("Creating booking {}, userId={}, idempotencyKey={}", requestDto, userId, idempotencyKey);
+		if (idempotencyKey != null) {
+			return bookingClient.bookItem(userId, idempotencyKey, requestDto);
+		}
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(HEADER) long userId) {
+		log.info("Export bookings, userId={}", userId);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(out -> bookingClient.exportBookings(userId, out));
+	}
+
+	@GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(HEADER) long userId) {
+		log.info("Export bookings of owner, userId={}", userId);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(out -> bookingClient.exportBookingsByOwner(userId, out));
+	}
+
+	@GetMapping("/summary")
+	public ResponseEntity<Object> getSummary(@RequestHeader(HEADER) long userId) {
+		log.info("Get booking summary, userId={}", userId);
+		return bookingClient.getSummary(userId);
+	}
+
+	@GetMapping("/owner/summary")
+	public ResponseEntity<Object> getSummaryByOwner(@RequestHeader(HEADER) long userId) {
+		log.info("Get booking summary of owner, userId={}", userId);
+		return bookingClient.getSummaryByOwner(userId);
+	}
+
+	@GetMapping("/changes")
+	public ResponseEntity<Object> getChanges(@RequestHeader(HEADER) long userId,
+											 @RequestParam(name = "since", required = false) String since,
+											 @Positive @Max(MAX_CHANGES_LIMIT)
+											 @RequestParam(name = "limit", defaultValue = "100") Integer limit) {
+		log.info("Get booking changes, userId={}, since={}, limit={}", userId, since, limit);
+		return bookingClient.getChanges("/changes", userId, since, limit);
+	}
+
+	@GetMapping("/owner/changes")
+	public ResponseEntity<Object> getChangesByOwner(@RequestHeader(HEADER) long userId,
+													@RequestParam(name = "since", required = false) String since,
+													@Positive @Max(MAX_CHANGES_LIMIT)
+													@RequestParam(name = "limit", defaultValue = "100") Integer limit) {
+		log.info("Get booking changes of owner, userId={}, since={}, limit={}", userId, since, limit);
+		return bookingClient.getChanges("/owner/changes", userId, since, limit);
+	}
+
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(@RequestHeader(HEADER) long userId,
+																		   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+		log.info("Subscribe to booking events, userId={}, lastEventId={}", userId, lastEventId);
+		return bookingClient.subscribe(userId, lastEventId);
+	}
+
 	@GetMapping("/{bookingId}")
 	public ResponseEntity<Object> getBooking(@RequestHeader(HEADER) long userId,
 											 @PathVariable Long bookingId) {
@@ -54,19 +129,33 @@ public class BookingController {
 	@PatchMapping("/{bookingId}")
 	public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId,
 												@RequestHeader(HEADER) Long ownerId,
-												@RequestParam(name = "approved") boolean approved) {
-		log.info("patch approved userId={} bookingId={}", ownerId, bookingId);
-		return bookingClient.approve(bookingId, ownerId, approved);
+												@RequestParam(name = "approved") boolean approved,
+												@RequestParam(name = "version", required = false) Long version) {
+		log.info("patch approved userId={} bookingId={} version={}", ownerId, bookingId, version);
+		return bookingClient.approve(bookingId, ownerId, approved, version);
+	}
+
+	@PatchMapping("/batch")
+	public ResponseEntity<Object> updateBookings(@RequestHeader(HEADER) long ownerId,
+												 @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+												 List<@Valid BookingDecisionDto> decisions) {
+		log.info("patch approved batch userId={} size={}", ownerId, decisions.size());
+		return bookingClient.approveAll(ownerId, decisions);
 	}
 
 	@GetMapping("/owner")
 	public ResponseEntity<Object> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
 														@RequestHeader(HEADER) Long userId,
 														@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-														@Positive @RequestParam(defaultValue = "10") Integer size) {
+														@Positive @RequestParam(defaultValue = "10") Integer size,
+														@RequestParam(required = false) String cursor,
+														@RequestParam(defaultValue = "full") String view) {
 		BookingState stateParam = BookingState.from(state)
 				.orElseThrow(() -> new BadRequestException("Unknown state: " + state));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
-		return bookingClient.ownerItemsBookingLists(userId, stateParam, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", state, userId, from, size, cursor);
+		if (cursor != null) {
+			return bookingClient.ownerItemsBookingLists(userId, stateParam, cursor, size, view);
+		}
+		return bookingClient.ownerItemsBookingLists(userId, stateParam, from, size, view);
 	}
 }
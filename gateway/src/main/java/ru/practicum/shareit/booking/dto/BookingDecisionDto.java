@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto implements Serializable {
+	@NotNull
+	private Long bookingId;
+	@NotNull
+	private Boolean approved;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.client;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +10,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
@@ -43,6 +45,10 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
+    protected <T> ResponseEntity<Object> post(String path, long userId, T body, HttpHeaders headers) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, headers);
+    }
+
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
@@ -83,8 +89,25 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Copies the server response body to {@code out} as it arrives, without reading it into memory. Error
+     * statuses of the server are thrown as {@link HttpStatusCodeException}.
+     */
+    protected void stream(String path, long userId, MediaType mediaType, OutputStream out) {
+        rest.execute(path, HttpMethod.GET, request -> {
+            request.getHeaders().setAccept(List.of(mediaType));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        }, response -> StreamUtils.copy(response.getBody(), out));
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, parameters, body, HttpHeaders.EMPTY);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, HttpHeaders headers) {
+        HttpHeaders requestHeaders = defaultHeaders(userId);
+        requestHeaders.addAll(headers);
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, requestHeaders);
 
         ResponseEntity<Object> shareitServerResponse;
         try {
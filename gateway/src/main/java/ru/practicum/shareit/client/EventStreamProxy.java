@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Relays a server-sent event stream of the server to the caller line by line. Both sides are asynchronous
+ * (JDK {@link HttpClient} upstream, a servlet async {@link ResponseBodyEmitter} downstream), so an open
+ * subscription holds no thread while it waits for events.
+ */
+public class EventStreamProxy {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+
+    public EventStreamProxy(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Completes with the server's status and a body that keeps receiving the stream once the server has
+     * answered with its headers.
+     */
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> open(String path, long userId,
+                                                                       @Nullable String lastEventId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .header("X-Sharer-User-Id", String.valueOf(userId));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        CompletableFuture<ResponseEntity<ResponseBodyEmitter>> response = new CompletableFuture<>();
+        httpClient.sendAsync(request.build(), info -> {
+            response.complete(ResponseEntity.status(info.statusCode())
+                    .contentType(info.statusCode() == 200 ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_JSON)
+                    .body(emitter));
+            return HttpResponse.BodySubscribers.fromLineSubscriber(new Relay(emitter));
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                response.completeExceptionally(error);
+                emitter.completeWithError(error);
+            }
+        });
+        return response;
+    }
+
+    private static class Relay implements Flow.Subscriber<String> {
+        private final ResponseBodyEmitter emitter;
+        private Flow.Subscription subscription;
+
+        Relay(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(e -> subscription.cancel());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                emitter.send((line + "\n").getBytes(StandardCharsets.UTF_8));
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                subscription.cancel();
+                emitter.completeWithError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            emitter.completeWithError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+    }
+}
@@ -11,20 +11,25 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final SuggestionCache suggestionCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      SuggestionCache suggestionCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
                         .build()
         );
+        this.suggestionCache = suggestionCache;
     }
 
 
@@ -48,16 +53,50 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItems(long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> getItems(long userId, String text, Integer from, Integer size, String sort,
+                                           Boolean scores) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size,
+                "sort", sort,
+                "scores", scores
+        );
+        return get("/search?text={text}&from={from}&size={size}&sort={sort}&scores={scores}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSuggestions(long userId, String prefix, Integer limit) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "limit", limit
+        );
+        return suggestionCache.get(prefix, limit,
+                () -> get("/search/suggest?prefix={prefix}&limit={limit}", userId, parameters));
+    }
+
+    public ResponseEntity<Object> getFreeItems(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                               Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "start", start,
+                "end", end,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/free?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long itemId, Long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to,
+                                                  String granularity) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to,
+                "granularity", granularity
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}&granularity={granularity}", userId, parameters);
+    }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -10,8 +11,11 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Create;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -23,6 +27,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final int MAX_SUGGEST_LIMIT = 20;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@Validated({Create.class}) @RequestBody ItemDto itemDto,
@@ -57,9 +62,31 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> getItems(@RequestHeader(HEADER) long userId,
                                            @RequestParam String text, @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Get /search text={}, from={}, size={}", text, from, size);
-        return itemClient.getItems(userId, text, from, size);
+                                           @Positive @RequestParam(defaultValue = "10") Integer size,
+                                           @Pattern(regexp = "(?i)id|relevance") @RequestParam(defaultValue = "id") String sort,
+                                           @RequestParam(defaultValue = "false") Boolean scores) {
+        log.info("Get /search text={}, from={}, size={}, sort={}, scores={}", text, from, size, sort, scores);
+        return itemClient.getItems(userId, text, from, size, sort, scores);
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<Object> getSuggestions(@RequestHeader(HEADER) long userId,
+                                                 @RequestParam(defaultValue = "") String prefix,
+                                                 @Positive @Max(MAX_SUGGEST_LIMIT)
+                                                 @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Get /search/suggest prefix={}, limit={}", prefix, limit);
+        return itemClient.getSuggestions(userId, prefix, limit);
+    }
+
+    @GetMapping("/free")
+    public ResponseEntity<Object> getFreeItems(@RequestHeader(HEADER) long userId,
+                                               @RequestParam(defaultValue = "") String text,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                               @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Get /free text={}, start={}, end={}, from={}, size={}", text, start, end, from, size);
+        return itemClient.getFreeItems(userId, text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -69,4 +96,15 @@ public class ItemController {
         log.info("Post comment userId={}, itemId={}, commentDto={}", userId, itemId, commentDto);
         return itemClient.addComment(itemId, userId, commentDto);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestHeader(HEADER) Long userId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                  @RequestParam(defaultValue = "HOUR") String granularity) {
+        log.info("Get availability itemId={}, userId={}, from={}, to={}, granularity={}",
+                itemId, userId, from, to, granularity);
+        return itemClient.getAvailability(itemId, userId, from, to, granularity);
+    }
 }
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps successful {@code /items/search/suggest} responses for {@code shareit.gateway.suggest.ttl-seconds},
+ * so a burst of keystrokes with the same prefix reaches the server once. At most
+ * {@code shareit.gateway.suggest.max-entries} prefixes are kept, in insertion order, so both bounds evict from
+ * the head.
+ */
+@Component
+public class SuggestionCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public SuggestionCache(@Value("${shareit.gateway.suggest.max-entries:10000}") int maxEntries,
+                           @Value("${shareit.gateway.suggest.ttl-seconds:5}") long ttlSeconds) {
+        this(maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public SuggestionCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public ResponseEntity<Object> get(String prefix, int limit, Supplier<ResponseEntity<Object>> loader) {
+        String key = prefix.toLowerCase(Locale.ROOT) + '\n' + limit;
+        synchronized (this) {
+            evictExpired(System.nanoTime());
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                return entry.response;
+            }
+        }
+        ResponseEntity<Object> response = loader.get();
+        if (response.getStatusCode().is2xxSuccessful()) {
+            put(key, response);
+        }
+        return response;
+    }
+
+    private synchronized void put(String key, ResponseEntity<Object> response) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        entries.remove(key);
+        entries.put(key, new Entry(response, now));
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && now - eldest.next().storedAt >= ttlNanos) {
+            eldest.remove();
+        }
+    }
+
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final long storedAt;
+
+        Entry(ResponseEntity<Object> response, long storedAt) {
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the booking service, inside the transaction of the write, whenever a booking is created or
+ * changes status. The in-memory indexes follow bookings by listening to it.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BookingChangedEvent {
+    private final Long bookingId;
+    private final Long itemId;
+    private final Long itemOwnerId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Status status;
+    private final LocalDateTime occurredAt;
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getItem().getId(), booking.getItem().getOwnerId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                LocalDateTime.now());
+    }
+}
@@ -1,14 +1,33 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingView;
+import ru.practicum.shareit.booking.feed.BookingFeed;
+import ru.practicum.shareit.booking.idempotency.BookingIdempotency;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.booking.InvalidBookingViewException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,21 +36,99 @@ import java.util.List;
 @Validated
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final BookingFeed bookingFeed;
+    private final BookingIdempotency bookingIdempotency;
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     @PostMapping
     public BookingDto create(@RequestBody BookingInputDto bookingInputDto,
-                             @RequestHeader(HEADER) Long bookerId) {
+                             @RequestHeader(HEADER) Long bookerId,
+                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Получен запрос к эндпоинту:{} /bookings", "POST");
-        return bookingService.create(bookingInputDto, bookerId);
+        if (idempotencyKey == null) {
+            return bookingService.create(bookingInputDto, bookerId);
+        }
+        return bookingIdempotency.create(bookerId, idempotencyKey, bookingInputDto,
+                () -> bookingService.create(bookingInputDto, bookerId));
     }
 
     @PatchMapping(value = "/{bookingId}")
     public BookingDto update(@PathVariable(value = "bookingId") Long bookingId,
                              @RequestHeader(HEADER) Long userId,
-                             @RequestParam(value = "approved") Boolean approved) {
+                             @RequestParam(value = "approved") Boolean approved,
+                             @RequestParam(value = "version", required = false) Long version) {
         log.info("Получен запрос к эндпоинту:{} /bookings/{}", "PATCH", bookingId);
-        return bookingService.update(bookingId, userId, approved);
+        return bookingService.update(bookingId, userId, approved, version);
+    }
+
+    @PatchMapping(value = "/batch")
+    public List<BookingDecisionResultDto> updateAll(@RequestHeader(HEADER) Long userId,
+                                                    @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/batch", "PATCH");
+        return bookingService.updateAll(userId, decisions);
+    }
+
+    /**
+     * The user is checked before the response starts: once the body streams, the status is already sent.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(HEADER) Long userId) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/export", "GET");
+        bookingService.checkUser(userId);
+        ObjectWriter writer = objectMapper.writerFor(BookingCompactDto.class);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingService.exportBookings(userId, booking -> writeLine(out, writer, booking)));
+    }
+
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(HEADER) Long ownerId) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/owner/export", "GET");
+        bookingService.checkUser(ownerId);
+        ObjectWriter writer = objectMapper.writerFor(BookingCompactDto.class);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingService.exportBookingsByOwner(ownerId,
+                        booking -> writeLine(out, writer, booking)));
+    }
+
+    @GetMapping(value = "/summary")
+    public BookingSummaryDto getSummary(@RequestHeader(HEADER) Long userId) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/summary", "GET");
+        return bookingService.getSummary(userId);
+    }
+
+    @GetMapping(value = "/owner/summary")
+    public BookingSummaryDto getSummaryByOwner(@RequestHeader(HEADER) Long ownerId) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/owner/summary", "GET");
+        return bookingService.getSummaryByOwner(ownerId);
+    }
+
+    @GetMapping(value = "/changes")
+    public BookingChangesDto getChanges(@RequestHeader(HEADER) Long userId,
+                                        @RequestParam(name = "since", required = false) String since,
+                                        @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/changes, since: {}", "GET", since);
+        return bookingService.getChanges(userId, since, limit);
+    }
+
+    @GetMapping(value = "/owner/changes")
+    public BookingChangesDto getChangesByOwner(@RequestHeader(HEADER) Long ownerId,
+                                               @RequestParam(name = "since", required = false) String since,
+                                               @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/owner/changes, since: {}", "GET", since);
+        return bookingService.getChangesByOwner(ownerId, since, limit);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(HEADER) Long userId,
+                                @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        log.info("Получен запрос к эндпоинту:{} /bookings/events, Last-Event-ID: {}", "GET", lastEventId);
+        return bookingFeed.subscribe(userId, lastEventId);
     }
 
     @GetMapping(value = "/{bookingId}")
@@ -42,20 +139,60 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookings(@RequestParam(value = "state", defaultValue = "ALL") String state,
-                                        @RequestHeader(HEADER) Long userId,
-                                        @RequestParam(name = "from", defaultValue = "0") int from,
-                                        @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
+    public ResponseEntity<List<?>> getBookings(@RequestParam(value = "state", defaultValue = "ALL") String state,
+                                               @RequestHeader(HEADER) Long userId,
+                                               @RequestParam(name = "from", defaultValue = "0") int from,
+                                               @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+                                               @RequestParam(name = "cursor", required = false) String cursor,
+                                               @RequestParam(name = "view", defaultValue = "FULL") String view) {
         log.info("Получен запрос к эндпоинту:{} /bookings", "GET");
-        return bookingService.getBookings(state, userId, from, size);
+        if (toView(view) == BookingView.COMPACT) {
+            return withNextCursor(bookingService.getCompactBookings(state, userId, BookingCursor.decode(cursor),
+                    cursor == null ? from : 0, size), size, BookingCursor::of);
+        }
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getBookings(state, userId, from, size)
+                : bookingService.getBookings(state, userId, BookingCursor.decode(cursor), size);
+        return withNextCursor(bookings, size, BookingCursor::of);
     }
 
     @GetMapping(value = "/owner")
-    public List<BookingDto> getBookingsByOwner(@RequestParam(value = "state", defaultValue = "ALL") String state,
-                                               @RequestHeader(HEADER) Long ownerId,
-                                               @RequestParam(name = "from", defaultValue = "0") int from,
-                                               @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
+    public ResponseEntity<List<?>> getBookingsByOwner(@RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                      @RequestHeader(HEADER) Long ownerId,
+                                                      @RequestParam(name = "from", defaultValue = "0") int from,
+                                                      @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                      @RequestParam(name = "view", defaultValue = "FULL") String view) {
         log.info("Получен запрос к эндпоинту:{} /bookings/owner", "GET");
-        return bookingService.getBookingsByOwner(state, ownerId, from, size);
+        if (toView(view) == BookingView.COMPACT) {
+            return withNextCursor(bookingService.getCompactBookingsByOwner(state, ownerId,
+                    BookingCursor.decode(cursor), cursor == null ? from : 0, size), size, BookingCursor::of);
+        }
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getBookingsByOwner(state, ownerId, from, size)
+                : bookingService.getBookingsByOwner(state, ownerId, BookingCursor.decode(cursor), size);
+        return withNextCursor(bookings, size, BookingCursor::of);
+    }
+
+    private static void writeLine(OutputStream out, ObjectWriter writer, BookingCompactDto booking) {
+        try {
+            out.write(writer.writeValueAsBytes(booking));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BookingView toView(String view) {
+        return BookingView.from(view).orElseThrow(() -> new InvalidBookingViewException(view));
+    }
+
+    private <T> ResponseEntity<List<?>> withNextCursor(List<T> bookings, int size,
+                                                       Function<T, BookingCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 }
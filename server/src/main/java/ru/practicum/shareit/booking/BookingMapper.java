@@ -6,6 +6,7 @@ import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.pointer.ItemBookingPointer;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 
@@ -19,6 +20,7 @@ public class BookingMapper {
                 .item(ItemMapper.toItemDto(booking.getItem()))
                 .booker(UserMapper.toUserDto(booking.getBooker()))
                 .status(booking.getStatus())
+                .version(booking.getVersion())
                 .build();
     }
 
@@ -39,4 +41,13 @@ public class BookingMapper {
                 .end(booking.getEnd())
                 .build();
     }
+
+    public static BookingShortDto toBookingShortDto(ItemBookingPointer pointer) {
+        return BookingShortDto.builder()
+                .id(pointer.getBookingId())
+                .bookerId(pointer.getBookerId())
+                .start(pointer.getStart())
+                .end(pointer.getEnd())
+                .build();
+    }
 }
@@ -1,57 +1,102 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    String EXPORT_FETCH_SIZE = "500";
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId,
-                                                              LocalDateTime start,
-                                                              LocalDateTime end,
-                                                              Pageable pageable);
+    @Override
+    @EntityGraph(Booking.ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsBefore(Long bookerId,
-                                                               LocalDateTime start,
-                                                               LocalDateTime end,
-                                                               Pageable pageable);
+    @Query(value = "select b.item_id as \"itemId\", b.booking_id as \"id\", b.booker_id as \"bookerId\", " +
+            "b.start_date as \"start\", b.end_date as \"end\" " +
+            "from (select bk.*, row_number() over (" +
+            "        partition by bk.item_id, case when bk.start_date < :now then 0 else 1 end " +
+            "        order by case when bk.start_date < :now then bk.end_date end desc, bk.start_date asc) as rn " +
+            "      from bookings bk " +
+            "      where bk.item_id in (:itemIds) and bk.status = 'APPROVED' and bk.start_date <> :now) b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApproved(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
 
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId,
-                                                LocalDateTime start,
-                                                Pageable pageable);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id in :ids")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId,
-                                          Status status,
-                                          Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.timeline.TimelineEntry(" +
+            "b.id, b.item.id, b.item.ownerId, b.booker.id, b.start, b.end, b.status) " +
+            "from Booking b where b.status in :statuses")
+    List<TimelineEntry> findTimelineEntries(@Param("statuses") Collection<Status> statuses);
 
-    List<Booking> findByItem_OwnerId(Long ownerId, Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.timeline.TimelineEntry(" +
+            "b.id, b.item.id, b.item.ownerId, b.booker.id, b.start, b.end, b.status) " +
+            "from ArchivedBooking b")
+    List<TimelineEntry> findArchivedTimelineEntries();
 
-    List<Booking> findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId,
-                                                                  LocalDateTime start,
-                                                                  LocalDateTime end,
-                                                                  Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.timeline.TimelineEntry(" +
+            "b.id, b.item.id, b.item.ownerId, b.booker.id, b.start, b.end, b.status) " +
+            "from Booking b where b.status = :waiting or (b.status = :approved and b.end > :now)")
+    List<TimelineEntry> findPendingTransitions(@Param("waiting") Status waiting,
+                                               @Param("approved") Status approved,
+                                               @Param("now") LocalDateTime now);
 
-    List<Booking> findByItem_OwnerIdAndEndIsBefore(Long ownerId,
-                                                   LocalDateTime end,
-                                                   Pageable pageable);
+    /**
+     * Bookings of the booker as compact rows, newest first, read from an open cursor in chunks of
+     * {@link #EXPORT_FETCH_SIZE} rows. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCompactDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "from Booking b join b.item i where b.booker.id = :bookerId order by b.start desc, b.id desc")
+    Stream<BookingCompactDto> streamByBookerId(@Param("bookerId") Long bookerId);
 
-    List<Booking> findByItem_OwnerIdAndStartIsAfter(Long ownerId,
-                                                    LocalDateTime start,
-                                                    Pageable pageable);
+    /**
+     * Same as {@link #streamByBookerId} for the bookings of the owner's items.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCompactDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "from Booking b join b.item i where i.ownerId = :ownerId order by b.start desc, b.id desc")
+    Stream<BookingCompactDto> streamByItemOwnerId(@Param("ownerId") Long ownerId);
 
-    List<Booking> findByItem_OwnerIdAndStatus(Long ownerId,
-                                              Status status,
-                                              Pageable pageable);
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId and b.status = :status and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("status") Status status,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
 
-    Booking findFirstByItem_IdAndStatusAndStartBeforeOrderByEndDesc(Long itemId, Status status, LocalDateTime end);
+    @Query("select b.start as start, b.end as end from Booking b " +
+            "where b.item.id = :itemId and b.status = :status order by b.start")
+    List<BookingPeriodView> findPeriodsByItemIdAndStatus(@Param("itemId") Long itemId,
+                                                         @Param("status") Status status);
 
-    Booking findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(Long itemId, Status status, LocalDateTime start);
+    @Query("select distinct b.item.id from Booking b where b.status = :status")
+    List<Long> findItemIdsByStatus(@Param("status") Status status);
 
     Booking findFirstByItem_IdAndBooker_IdAndEndBefore(Long itemId, Long userId, LocalDateTime end);
+
+    @Query("select count(b) > 0 from ArchivedBooking b " +
+            "where b.item.id = :itemId and b.booker.id = :bookerId and b.end < :end")
+    boolean existsArchivedEndedBefore(@Param("itemId") Long itemId,
+                                      @Param("bookerId") Long bookerId,
+                                      @Param("end") LocalDateTime end);
 }
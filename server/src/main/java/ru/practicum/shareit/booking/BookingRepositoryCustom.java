@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<Booking> findAll(Specification<Booking> specification, Sort sort, long offset, int limit);
+
+    List<BookingCompactDto> findAllCompact(Specification<Booking> specification, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAll(Specification<Booking> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        return page(query, root, specification, sort, offset, limit)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Booking.ITEM_AND_BOOKER))
+                .getResultList();
+    }
+
+    /**
+     * Same filtering and paging as {@link #findAll}, but selects only the columns of {@link BookingCompactDto},
+     * so no entity is hydrated or attached to the persistence context.
+     */
+    @Override
+    public List<BookingCompactDto> findAllCompact(Specification<Booking> specification, Sort sort,
+                                                  long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingCompactDto> query = cb.createQuery(BookingCompactDto.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        query.select(cb.construct(BookingCompactDto.class,
+                root.get("id"),
+                root.get("start"),
+                root.get("end"),
+                root.get("status"),
+                item.get("id"),
+                item.get("name"),
+                root.get("booker").get("id")));
+        return page(query, root, specification, sort, offset, limit).getResultList();
+    }
+
+    private <T> TypedQuery<T> page(CriteriaQuery<T> query, Root<Booking> root, Specification<Booking> specification,
+                             Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.owner.OwnerBooking;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> hasBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> hasItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("ownerId"), ownerId);
+    }
+
+    public static Specification<OwnerBooking> hasOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("ownerId"), ownerId);
+    }
+
+    public static Specification<ArchivedBooking> hasArchivedBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<ArchivedBooking> hasArchivedItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("ownerId"), ownerId);
+    }
+
+    /**
+     * Works on any root with {@code start}, {@code end} and {@code status} attributes.
+     */
+    public static <T> Specification<T> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return null;
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThan(root.get("start"), now),
+                        cb.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case WAITING:
+                return hasStatus(Status.WAITING);
+            case REJECTED:
+                return hasStatus(Status.REJECTED);
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+    }
+
+    public static <T> Specification<T> hasStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static <T> Specification<T> after(BookingCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursor.getStart()),
+                cb.and(
+                        cb.equal(root.get("start"), cursor.getStart()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
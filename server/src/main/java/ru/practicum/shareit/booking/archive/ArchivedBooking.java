@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Row of {@code bookings_archive}: a booking that ended before the archive horizon, moved out of
+ * {@code bookings} by {@link BookingArchive}. Archived bookings are read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@ToString
+public class ArchivedBooking {
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    @ToString.Exclude
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
+    @ToString.Exclude
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private Long version;
+
+    public Booking toBooking() {
+        return new Booking(id, start, end, item, booker, status, version);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedBooking that = (ArchivedBooking) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
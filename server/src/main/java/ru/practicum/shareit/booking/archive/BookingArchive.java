@@ -0,0 +1,161 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Moves bookings that ended more than {@code shareit.booking.archive.horizon-days} ago from {@code bookings}
+ * to {@code bookings_archive}, every {@code shareit.booking.archive.interval-minutes} (0 turns it off). The
+ * last and next bookings of items stay hot, so item pointers keep their rows. On PostgreSQL the archive is
+ * partitioned by year of {@code end_date}; elsewhere it is a plain table.
+ * <p>
+ * Every archived booking started before {@link #archivedBefore()}, so a PAST page whose hot rows all start
+ * at or after it is answered without touching the archive; see {@link #withArchived}.
+ */
+@Component
+@Slf4j
+public class BookingArchive {
+    private static final int BATCH_SIZE = 500;
+    private static final String CREATE_PARTITION = "create table if not exists bookings_archive_%1$d " +
+            "partition of bookings_archive for values from ('%1$d-01-01') to ('%2$d-01-01')";
+
+    private final BookingArchiveRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final long intervalMinutes;
+    private final boolean partitioned;
+    private volatile LocalDateTime archivedBefore;
+    private ScheduledExecutorService executor;
+
+    public BookingArchive(BookingArchiveRepository repository,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${shareit.booking.archive.horizon-days:365}") long horizonDays,
+                          @Value("${shareit.booking.archive.interval-minutes:60}") long intervalMinutes,
+                          @Value("${shareit.booking.archive.partitioned:true}") boolean partitioned) {
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("Горизонт архива бронирований должен быть положительным: "
+                    + horizonDays);
+        }
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = Duration.ofDays(horizonDays);
+        this.intervalMinutes = intervalMinutes;
+        this.partitioned = partitioned;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        archivedBefore = repository.findLatestEnd();
+        if (intervalMinutes <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::run, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Latest end of an archived booking, or {@code null} while the archive is empty.
+     */
+    public LocalDateTime archivedBefore() {
+        return archivedBefore;
+    }
+
+    /**
+     * Moves every booking that ended before {@code now} minus the horizon, {@link #BATCH_SIZE} bookings per
+     * transaction, and returns how many were moved.
+     */
+    public int archive(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(horizon);
+        int moved = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> moveBatch(cutoff));
+            moved += batch;
+        } while (batch == BATCH_SIZE);
+        archivedBefore = repository.findLatestEnd();
+        log.info("В архив перенесено бронирований, завершённых до {}: {}", cutoff, moved);
+        return moved;
+    }
+
+    /**
+     * One page of a listing sorted by start and id descending, read from the hot table and, when the page may
+     * reach back past {@link #archivedBefore()}, from the archive as well. Both readers take an offset and a
+     * limit; the archive is only read with offset 0 and merged with the hot rows.
+     */
+    public <T> List<T> withArchived(BiFunction<Long, Integer, List<T>> hot,
+                                    BiFunction<Long, Integer, List<T>> archived,
+                                    Function<T, LocalDateTime> start,
+                                    Function<T, Long> id,
+                                    long offset, int limit) {
+        List<T> page = hot.apply(offset, limit);
+        LocalDateTime before = archivedBefore;
+        if (before == null
+                || page.size() == limit && !start.apply(page.get(page.size() - 1)).isBefore(before)) {
+            return page;
+        }
+        int window = Math.toIntExact(offset + limit);
+        List<T> merged = new ArrayList<>(offset == 0 ? page : hot.apply(0L, window));
+        merged.addAll(archived.apply(0L, window));
+        merged.sort(Comparator.comparing(start).thenComparing(id).reversed());
+        if (merged.size() <= offset) {
+            return List.of();
+        }
+        return merged.subList(Math.toIntExact(offset), Math.min(window, merged.size()));
+    }
+
+    private void run() {
+        try {
+            archive(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Не удалось перенести бронирования в архив", e);
+        }
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = repository.findIdsToArchive(cutoff, PageRequest.of(0, BATCH_SIZE));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (partitioned) {
+            for (Integer year : repository.findEndYears(ids)) {
+                entityManager.createNativeQuery(String.format(CREATE_PARTITION, year, year + 1)).executeUpdate();
+            }
+        }
+        repository.copyFromBookings(ids);
+        repository.deleteFromBookings(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long>, BookingArchiveRepositoryCustom {
+
+    @Query("select b from ArchivedBooking b join fetch b.item join fetch b.booker where b.id = :id")
+    Optional<ArchivedBooking> findWithItemAndBookerById(@Param("id") Long id);
+
+    @Query("select b from ArchivedBooking b join fetch b.item join fetch b.booker where b.id in :ids")
+    List<ArchivedBooking> findAllWithItemAndBookerByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Hot bookings that ended before {@code cutoff} and are not the last or next booking of their item.
+     */
+    @Query("select b.id from Booking b where b.end < :cutoff " +
+            "and not exists (select p from ItemBookingPointer p where p.bookingId = b.id) order by b.id")
+    List<Long> findIdsToArchive(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select distinct year(b.end) from Booking b where b.id in :ids")
+    List<Integer> findEndYears(@Param("ids") Collection<Long> ids);
+
+    @Query("select max(b.end) from ArchivedBooking b")
+    LocalDateTime findLatestEnd();
+
+    /**
+     * Archived bookings of the booker as compact rows, newest first, read from an open cursor in chunks of
+     * {@link BookingRepository#EXPORT_FETCH_SIZE} rows. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = BookingRepository.EXPORT_FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCompactDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "from ArchivedBooking b join b.item i where b.booker.id = :bookerId order by b.start desc, b.id desc")
+    Stream<BookingCompactDto> streamByBookerId(@Param("bookerId") Long bookerId);
+
+    /**
+     * Same as {@link #streamByBookerId} for the archived bookings of the owner's items.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = BookingRepository.EXPORT_FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCompactDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "from ArchivedBooking b join b.item i where i.ownerId = :ownerId order by b.start desc, b.id desc")
+    Stream<BookingCompactDto> streamByItemOwnerId(@Param("ownerId") Long ownerId);
+}
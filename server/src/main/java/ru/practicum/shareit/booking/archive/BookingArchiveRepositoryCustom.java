@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingArchiveRepositoryCustom {
+    List<Booking> findAll(Specification<ArchivedBooking> specification, Sort sort, long offset, int limit);
+
+    List<BookingCompactDto> findAllCompact(Specification<ArchivedBooking> specification, Sort sort,
+                                           long offset, int limit);
+
+    int copyFromBookings(Collection<Long> ids);
+
+    int deleteFromBookings(Collection<Long> ids);
+}
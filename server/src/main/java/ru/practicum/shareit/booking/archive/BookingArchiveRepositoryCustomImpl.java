@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class BookingArchiveRepositoryCustomImpl implements BookingArchiveRepositoryCustom {
+    private final EntityManager entityManager;
+
+    /**
+     * Archived bookings with their items and bookers fetched, returned as detached {@link Booking}s so they
+     * map like hot ones.
+     */
+    @Override
+    public List<Booking> findAll(Specification<ArchivedBooking> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArchivedBooking> query = cb.createQuery(ArchivedBooking.class);
+        Root<ArchivedBooking> root = query.from(ArchivedBooking.class);
+        root.fetch("item");
+        root.fetch("booker");
+        return page(query, root, specification, sort, offset, limit).getResultList()
+                .stream()
+                .map(ArchivedBooking::toBooking)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingCompactDto> findAllCompact(Specification<ArchivedBooking> specification, Sort sort,
+                                                  long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingCompactDto> query = cb.createQuery(BookingCompactDto.class);
+        Root<ArchivedBooking> root = query.from(ArchivedBooking.class);
+        Join<ArchivedBooking, Item> item = root.join("item");
+        query.select(cb.construct(BookingCompactDto.class,
+                root.get("id"),
+                root.get("start"),
+                root.get("end"),
+                root.get("status"),
+                item.get("id"),
+                item.get("name"),
+                root.get("booker").get("id")));
+        return page(query, root, specification, sort, offset, limit).getResultList();
+    }
+
+    /**
+     * Copies the bookings with the given ids into {@code bookings_archive} as they are. This and
+     * {@link #deleteFromBookings} run as plain native statements: Spring Data 2.7 fails to parse native
+     * {@code insert}/{@code delete} queries with a collection parameter.
+     */
+    @Override
+    @Transactional
+    public int copyFromBookings(Collection<Long> ids) {
+        return entityManager.createNativeQuery("insert into bookings_archive " +
+                        "(booking_id, start_date, end_date, item_id, booker_id, status, version) " +
+                        "select booking_id, start_date, end_date, item_id, booker_id, status, version " +
+                        "from bookings where booking_id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * Removes moved bookings from {@code bookings}; their {@code owner_booking_view} rows go with them.
+     */
+    @Override
+    @Transactional
+    public int deleteFromBookings(Collection<Long> ids) {
+        return entityManager.createNativeQuery("delete from bookings where booking_id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    private <T> TypedQuery<T> page(CriteriaQuery<T> query, Root<ArchivedBooking> root,
+                                   Specification<ArchivedBooking> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit);
+    }
+}
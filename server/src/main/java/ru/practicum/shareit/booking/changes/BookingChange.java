@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.changes;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+import ru.practicum.shareit.booking.Booking;
+
+import javax.persistence.*;
+
+/**
+ * Row of {@code booking_changes}: one write of a booking, numbered by {@link BookingChangeLog}.
+ */
+@Entity
+@Table(name = "booking_changes")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@ToString
+public class BookingChange implements Persistable<Long> {
+    @Id
+    @Column(name = "change_seq")
+    private Long sequence;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    public static BookingChange of(long sequence, Booking booking) {
+        return new BookingChange(sequence, booking.getId(), booking.getBooker().getId(),
+                booking.getItem().getOwnerId());
+    }
+
+    @Override
+    public Long getId() {
+        return sequence;
+    }
+
+    /**
+     * Rows are only ever inserted, so {@code save()} never needs the select {@code merge()} would issue first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.changes;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Ids of the bookings changed after a token, each once, in the order of their first change, and the
+ * sequence to continue from.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BookingChangeBatch {
+    private final List<Long> bookingIds;
+    private final long next;
+}
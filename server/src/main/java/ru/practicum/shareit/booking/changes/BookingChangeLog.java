@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.changes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Numbers booking writes with a monotonic sequence and records them in {@code booking_changes}, in the
+ * transaction of the write. Numbers are taken from the {@code booking_change_counter} row, so every server
+ * sharing the database draws from one sequence. A short transaction of its own registers each taken number in
+ * {@code booking_change_pending}; the write removes it together with its change, or it is removed after a
+ * rollback. Readers only see changes up to {@link #safeSequence()}, below the oldest registered number, so a
+ * change can never appear behind a token that was already handed out. A registration older than
+ * {@code shareit.booking.changes.pending-timeout-seconds} is taken to belong to a server that stopped, and no
+ * longer holds readers back. Numbers of rolled back writes are simply never used.
+ */
+@Component
+@Slf4j
+public class BookingChangeLog {
+    private final BookingChangeRepository repository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate newTransaction;
+    private final Duration pendingTimeout;
+
+    public BookingChangeLog(BookingChangeRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.booking.changes.pending-timeout-seconds:300}")
+                            long pendingTimeoutSeconds) {
+        if (pendingTimeoutSeconds < 0) {
+            throw new IllegalArgumentException(
+                    "Время ожидания незавершённых изменений не может быть отрицательным: " + pendingTimeoutSeconds);
+        }
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pendingTimeout = Duration.ofSeconds(pendingTimeoutSeconds);
+    }
+
+    public void record(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> sequences = newTransaction.execute(status -> take(bookings.size()));
+        List<BookingChange> changes = new ArrayList<>();
+        Iterator<Long> sequence = sequences.iterator();
+        bookings.forEach(booking -> changes.add(BookingChange.of(sequence.next(), booking)));
+        transaction.executeWithoutResult(status -> {
+            TransactionHooks.onRollback(() -> release(sequences));
+            repository.saveAll(changes);
+            repository.deletePending(sequences);
+        });
+    }
+
+    /**
+     * Highest sequence below which every change is either committed or rolled back.
+     */
+    public long safeSequence() {
+        return repository.findSafeSequence(LocalDateTime.now().minus(pendingTimeout));
+    }
+
+    public BookingChangeBatch findByBooker(Long bookerId, long since, int limit) {
+        long upTo = safeSequence();
+        return batch(repository.findByBooker(bookerId, since, upTo, PageRequest.of(0, limit)), since, upTo, limit);
+    }
+
+    public BookingChangeBatch findByOwner(Long ownerId, long since, int limit) {
+        long upTo = safeSequence();
+        return batch(repository.findByOwner(ownerId, since, upTo, PageRequest.of(0, limit)), since, upTo, limit);
+    }
+
+    /**
+     * A short batch means every change of the user up to {@code upTo} was read, so the next token skips to it.
+     */
+    private static BookingChangeBatch batch(List<BookingChange> changes, long since, long upTo, int limit) {
+        long next = changes.size() < limit
+                ? Math.max(since, upTo)
+                : changes.get(changes.size() - 1).getSequence();
+        return new BookingChangeBatch(new ArrayList<>(changes.stream()
+                .map(BookingChange::getBookingId)
+                .collect(Collectors.toCollection(LinkedHashSet::new))), next);
+    }
+
+    /**
+     * Takes the next {@code count} numbers and registers them as pending, in a transaction that commits both
+     * at once.
+     */
+    private List<Long> take(int count) {
+        long last = repository.advanceCounter(count);
+        List<Long> sequences = LongStream.rangeClosed(last - count + 1, last).boxed().collect(Collectors.toList());
+        repository.insertPending(sequences, LocalDateTime.now());
+        return sequences;
+    }
+
+    private void release(List<Long> sequences) {
+        try {
+            newTransaction.executeWithoutResult(status -> repository.deletePending(sequences));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось снять незавершённые изменения бронирований {}: {}", sequences, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.changes;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BookingChangeRepository extends JpaRepository<BookingChange, Long>, BookingChangeRepositoryCustom {
+
+    @Query("select c from BookingChange c " +
+            "where c.bookerId = :bookerId and c.sequence > :since and c.sequence <= :upTo order by c.sequence")
+    List<BookingChange> findByBooker(@Param("bookerId") Long bookerId,
+                                     @Param("since") long since,
+                                     @Param("upTo") long upTo,
+                                     Pageable pageable);
+
+    @Query("select c from BookingChange c " +
+            "where c.ownerId = :ownerId and c.sequence > :since and c.sequence <= :upTo order by c.sequence")
+    List<BookingChange> findByOwner(@Param("ownerId") Long ownerId,
+                                    @Param("since") long since,
+                                    @Param("upTo") long upTo,
+                                    Pageable pageable);
+}
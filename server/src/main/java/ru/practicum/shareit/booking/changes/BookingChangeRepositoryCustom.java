@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.changes;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface BookingChangeRepositoryCustom {
+    long advanceCounter(int count);
+
+    void insertPending(Collection<Long> sequences, LocalDateTime created);
+
+    void deletePending(Collection<Long> sequences);
+
+    long findSafeSequence(LocalDateTime cutoff);
+}
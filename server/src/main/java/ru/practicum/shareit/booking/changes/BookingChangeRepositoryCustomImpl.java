@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.changes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Statements on {@code booking_change_counter} and {@code booking_change_pending}. They run as plain native
+ * statements: Spring Data 2.7 fails to derive a count query for native modifying queries.
+ */
+@RequiredArgsConstructor
+public class BookingChangeRepositoryCustomImpl implements BookingChangeRepositoryCustom {
+    private final EntityManager entityManager;
+
+    /**
+     * Takes the next {@code count} numbers and returns the last of them; the counter row stays locked until
+     * the transaction ends.
+     */
+    @Override
+    @Transactional
+    public long advanceCounter(int count) {
+        entityManager.createNativeQuery(
+                        "update booking_change_counter set last_seq = last_seq + :count where counter_id = 1")
+                .setParameter("count", count)
+                .executeUpdate();
+        return ((Number) entityManager.createNativeQuery(
+                        "select last_seq from booking_change_counter where counter_id = 1")
+                .getSingleResult()).longValue();
+    }
+
+    @Override
+    @Transactional
+    public void insertPending(Collection<Long> sequences, LocalDateTime created) {
+        sequences.forEach(sequence -> entityManager.createNativeQuery(
+                        "insert into booking_change_pending (change_seq, created) values (:sequence, :created)")
+                .setParameter("sequence", sequence)
+                .setParameter("created", created)
+                .executeUpdate());
+    }
+
+    @Override
+    @Transactional
+    public void deletePending(Collection<Long> sequences) {
+        entityManager.createNativeQuery("delete from booking_change_pending where change_seq in (:sequences)")
+                .setParameter("sequences", sequences)
+                .executeUpdate();
+    }
+
+    /**
+     * The number below the oldest pending one registered after {@code cutoff}, or the last one taken when
+     * nothing is pending; one statement, so both are read from the same snapshot.
+     */
+    @Override
+    public long findSafeSequence(LocalDateTime cutoff) {
+        return ((Number) entityManager.createNativeQuery("select coalesce(" +
+                        "(select min(p.change_seq) from booking_change_pending p where p.created > :cutoff) - 1, " +
+                        "(select c.last_seq from booking_change_counter c where c.counter_id = 1))")
+                .setParameter("cutoff", cutoff)
+                .getSingleResult()).longValue();
+    }
+}
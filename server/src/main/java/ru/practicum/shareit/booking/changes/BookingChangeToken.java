@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.changes;
+
+import ru.practicum.shareit.exception.booking.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque form of a change sequence handed to clients as {@code since}.
+ */
+public class BookingChangeToken {
+    private BookingChangeToken() {
+    }
+
+    public static long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            long sequence = Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (sequence < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return sequence;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public static String encode(long sequence) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(sequence).getBytes(StandardCharsets.UTF_8));
+    }
+}
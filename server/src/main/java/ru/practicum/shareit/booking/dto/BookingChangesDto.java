@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Answer of {@code /bookings/changes}: the current state of every booking changed since the given token, and
+ * the token to pass next time.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BookingChangesDto {
+    private List<BookingDto> bookings;
+    private String token;
+}
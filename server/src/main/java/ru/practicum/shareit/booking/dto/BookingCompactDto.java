@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * List row of {@code view=compact}: booking columns plus the item id/name and booker id, selected directly
+ * into this DTO without loading the booking, item or booker entities.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BookingCompactDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+    private Long itemId;
+    private String itemName;
+    private Long bookerId;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one decision of a bulk approval: the updated booking or the reason it was left unchanged.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private Boolean success;
+    private String error;
+    private BookingDto booking;
+
+    public static BookingDecisionResultDto applied(BookingDto booking) {
+        return new BookingDecisionResultDto(booking.getId(), true, null, booking);
+    }
+
+    public static BookingDecisionResultDto rejected(Long bookingId, String error) {
+        return new BookingDecisionResultDto(bookingId, false, error, null);
+    }
+}
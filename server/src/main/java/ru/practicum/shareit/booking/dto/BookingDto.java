@@ -18,6 +18,7 @@ public class BookingDto {
     private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
+    private Long version;
     private ItemDto item;
     private UserDto booker;
     private Status status;
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.enums;
+
+import java.util.Optional;
+
+public enum BookingView {
+    FULL,
+    COMPACT;
+
+    public static Optional<BookingView> from(String value) {
+        for (BookingView view : values()) {
+            if (view.name().equalsIgnoreCase(value)) {
+                return Optional.of(view);
+            }
+        }
+        return Optional.empty();
+    }
+}
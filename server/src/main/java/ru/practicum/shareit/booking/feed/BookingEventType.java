@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.feed;
+
+import ru.practicum.shareit.booking.enums.Status;
+
+public enum BookingEventType {
+    CREATED,
+    APPROVED,
+    REJECTED,
+    CANCELED,
+    EXPIRED;
+
+    public static BookingEventType of(Status status) {
+        switch (status) {
+            case WAITING:
+                return CREATED;
+            case APPROVED:
+                return APPROVED;
+            case REJECTED:
+                return REJECTED;
+            case CANCELED:
+                return CANCELED;
+            case EXPIRED:
+                return EXPIRED;
+            default:
+                throw new IllegalArgumentException("Unknown status: " + status);
+        }
+    }
+}
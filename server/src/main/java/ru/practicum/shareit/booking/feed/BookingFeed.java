@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.schedule.BookingTransitionEvent;
+import ru.practicum.shareit.booking.schedule.TransitionType;
+import ru.practicum.shareit.exception.user.UserNotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-process feed of booking changes pushed to the owner and the booker over server-sent events. The last
+ * {@code shareit.booking.feed.history} events are kept so that a reconnecting client can resume after the
+ * id it sends in {@code Last-Event-ID}. Event ids restart from 1 when the server restarts.
+ * <p>
+ * Events are queued per subscriber and written on the {@code booking-feed} threads, never on the thread that
+ * committed the booking, so a slow client cannot hold up booking writes. A subscriber more than
+ * {@code shareit.booking.feed.history} events behind is disconnected; everything it missed is still kept, so it
+ * can resume.
+ */
+@Component
+@Slf4j
+public class BookingFeed {
+    private final UserRepository userRepository;
+    private final int historySize;
+    private final long timeoutMillis;
+    private final Executor sender;
+
+    private final Deque<BookingFeedEvent> history = new ArrayDeque<>();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private long sequence;
+
+    @Autowired
+    public BookingFeed(UserRepository userRepository,
+                       @Value("${shareit.booking.feed.history:1000}") int historySize,
+                       @Value("${shareit.booking.feed.timeout-minutes:30}") long timeoutMinutes,
+                       @Value("${shareit.booking.feed.threads:4}") int threads) {
+        this(userRepository, historySize, timeoutMinutes, Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "booking-feed");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public BookingFeed(UserRepository userRepository, int historySize, long timeoutMinutes, Executor sender) {
+        this.userRepository = userRepository;
+        this.historySize = historySize;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.sender = sender;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sender instanceof ExecutorService) {
+            ((ExecutorService) sender).shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a stream of the events concerning {@code userId}, first replaying the kept events after
+     * {@code lastEventId} when it is given.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        // replay queued under the feed lock, so live events line up behind it
+        synchronized (this) {
+            subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+            if (lastEventId != null) {
+                eventsSince(userId, lastEventId).forEach(subscriber::enqueue);
+            }
+        }
+        log.info("Пользователь с id: {} подписался на события бронирований после: {}", userId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Kept events concerning {@code userId} with an id greater than {@code lastEventId}, oldest first.
+     */
+    public synchronized List<BookingFeedEvent> eventsSince(Long userId, long lastEventId) {
+        return history.stream()
+                .filter(event -> event.getId() > lastEventId && event.concerns(userId))
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        publish(new BookingFeedEvent(null, BookingEventType.of(event.getStatus()), event.getBookingId(),
+                event.getItemId(), event.getItemOwnerId(), event.getBookerId(), event.getStatus(),
+                event.getOccurredAt()));
+    }
+
+    @EventListener
+    public void onBookingTransition(BookingTransitionEvent event) {
+        if (event.getType() == TransitionType.EXPIRED) {
+            publish(new BookingFeedEvent(null, BookingEventType.EXPIRED, event.getBookingId(), event.getItemId(),
+                    event.getItemOwnerId(), event.getBookerId(), Status.EXPIRED, event.getOccurredAt()));
+        }
+    }
+
+    private synchronized void publish(BookingFeedEvent event) {
+        event.setId(++sequence);
+        history.addLast(event);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        subscribers.getOrDefault(event.getItemOwnerId(), Set.of()).forEach(subscriber -> subscriber.enqueue(event));
+        subscribers.getOrDefault(event.getBookerId(), Set.of()).forEach(subscriber -> subscriber.enqueue(event));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, current) -> {
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    /**
+     * Events waiting to be written to one stream, in order; at most one {@link #drain} per subscriber runs at a
+     * time.
+     */
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Deque<BookingFeedEvent> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void enqueue(BookingFeedEvent event) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() >= historySize) {
+                log.warn("Подписчик с id: {} отстал от событий бронирований и отключён", userId);
+                close(new IllegalStateException("Подписчик отстал от событий"));
+                return;
+            }
+            pending.addLast(event);
+            if (!draining) {
+                draining = true;
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining = false;
+                    pending.clear();
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                BookingFeedEvent event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getId()))
+                            .name(event.getType().name().toLowerCase())
+                            .data(event));
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        draining = false;
+                        close(e);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void close(Exception e) {
+            closed = true;
+            pending.clear();
+            unsubscribe(this);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the booking feed; {@code id} grows by one per event and is sent as the SSE event id.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class BookingFeedEvent {
+    private Long id;
+    private BookingEventType type;
+    private Long bookingId;
+    private Long itemId;
+    private Long itemOwnerId;
+    private Long bookerId;
+    private Status status;
+    private LocalDateTime occurredAt;
+
+    public boolean concerns(Long userId) {
+        return itemOwnerId.equals(userId) || bookerId.equals(userId);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.exception.booking.IdempotencyKeyReuseException;
+import ru.practicum.shareit.exception.booking.InvalidIdempotencyKeyException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@code POST /bookings} at most once per booker and {@code Idempotency-Key}: a stored result is replayed,
+ * and a duplicate arriving while the first request is still running waits for that execution and gets its
+ * result or its error. Failed executions are not stored, so a retry after an error runs again. Reusing a key
+ * for a different request body is rejected. The booking and its stored result commit in one transaction: when
+ * another server stores a result for the key first, the booking is rolled back and that result is replayed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIdempotency {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final TransactionOperations transactionOperations;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public BookingDto create(Long bookerId, String key, BookingInputDto input, Supplier<BookingDto> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(key);
+        }
+        String scopedKey = bookerId + ":" + key;
+        String fingerprint = fingerprint(input);
+        IdempotentResponse stored = store.find(scopedKey).orElse(null);
+        if (stored != null) {
+            log.info("Повтор запроса бронирования по ключу идемпотентности: {}", key);
+            return replay(stored, fingerprint, key);
+        }
+
+        CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(scopedKey, execution);
+        if (running != null) {
+            log.info("Ожидание выполняющегося запроса бронирования с ключом идемпотентности: {}", key);
+            return replay(await(running), fingerprint, key);
+        }
+        try {
+            // a duplicate may have finished between the lookup above and registering this execution
+            IdempotentResponse response = store.find(scopedKey)
+                    .orElseGet(() -> execute(scopedKey, key, fingerprint, action));
+            execution.complete(response);
+            return replay(response, fingerprint, key);
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, execution);
+        }
+    }
+
+    private IdempotentResponse execute(String scopedKey, String key, String fingerprint,
+                                       Supplier<BookingDto> action) {
+        IdempotentResponse created = transactionOperations.execute(status -> {
+            IdempotentResponse response = new IdempotentResponse(fingerprint, action.get());
+            if (store.put(scopedKey, response)) {
+                return response;
+            }
+            status.setRollbackOnly();
+            return null;
+        });
+        if (created != null) {
+            return created;
+        }
+        log.info("Ключ идемпотентности {} сохранён другим запросом, бронирование отменено", key);
+        return store.find(scopedKey).orElseThrow(() -> new IdempotencyKeyReuseException(key));
+    }
+
+    private static BookingDto replay(IdempotentResponse response, String fingerprint, String key) {
+        if (!response.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        return response.getBooking();
+    }
+
+    private static IdempotentResponse await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static String fingerprint(BookingInputDto input) {
+        return input.getItemId() + "|" + input.getStart() + "|" + input.getEnd();
+    }
+}
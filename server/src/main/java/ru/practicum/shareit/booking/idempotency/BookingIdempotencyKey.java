@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@link JpaIdempotencyStore}: the stored {@code BookingDto} is kept as JSON.
+ */
+@Entity
+@Table(name = "booking_idempotency_keys")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BookingIdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Column(name = "response")
+    private String response;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BookingIdempotencyKeyRepository extends JpaRepository<BookingIdempotencyKey, String>,
+        BookingIdempotencyKeyRepositoryCustom {
+    Optional<BookingIdempotencyKey> findByKeyAndCreatedAfter(String key, LocalDateTime after);
+
+    @Modifying
+    @Transactional
+    @Query("delete from BookingIdempotencyKey k where k.created <= :before")
+    int deleteAllCreatedBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Transactional
+    @Query("delete from BookingIdempotencyKey k where k.key = :key and k.created <= :before")
+    int deleteCreatedBefore(@Param("key") String key, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.idempotency;
+
+public interface BookingIdempotencyKeyRepositoryCustom {
+    void insert(BookingIdempotencyKey key);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+@RequiredArgsConstructor
+public class BookingIdempotencyKeyRepositoryCustomImpl implements BookingIdempotencyKeyRepositoryCustom {
+    private final EntityManager entityManager;
+
+    /**
+     * Inserts the row, failing with a {@code DataIntegrityViolationException} when the key is already stored.
+     * {@code save} would merge a row with an assigned id, overwriting the one another request stored.
+     */
+    @Override
+    @Transactional
+    public void insert(BookingIdempotencyKey key) {
+        entityManager.persist(key);
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Bounded store of {@code POST /bookings} results by idempotency key; entries older than the configured TTL
+ * are never returned.
+ */
+public interface IdempotencyStore {
+    Optional<IdempotentResponse> find(String key);
+
+    /**
+     * Stores the response unless the key already has one; returns whether it was stored.
+     */
+    boolean put(String key, IdempotentResponse response);
+}
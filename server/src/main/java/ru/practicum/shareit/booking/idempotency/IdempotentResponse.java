@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+/**
+ * Result of a {@code POST /bookings} stored under its idempotency key, with the fingerprint of the request
+ * that produced it.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class IdempotentResponse {
+    private final String fingerprint;
+    private final BookingDto booking;
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps at most {@code shareit.booking.idempotency.max-entries} responses in insertion order, so both the
+ * size bound and the TTL evict from the head.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public InMemoryIdempotencyStore(@Value("${shareit.booking.idempotency.max-entries:10000}") int maxEntries,
+                                    @Value("${shareit.booking.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this(maxEntries, Duration.ofMinutes(ttlMinutes));
+    }
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Размер хранилища ключей идемпотентности должен быть положительным: "
+                    + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> find(String key) {
+        evictExpired(System.nanoTime());
+        Entry entry = entries.get(key);
+        return entry == null ? Optional.empty() : Optional.of(entry.response);
+    }
+
+    @Override
+    public synchronized boolean put(String key, IdempotentResponse response) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        if (entries.containsKey(key)) {
+            return false;
+        }
+        entries.put(key, new Entry(response, now));
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+        }
+        return true;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && now - eldest.next().storedAt >= ttlNanos) {
+            eldest.remove();
+        }
+    }
+
+    private static class Entry {
+        private final IdempotentResponse response;
+        private final long storedAt;
+
+        Entry(IdempotentResponse response, long storedAt) {
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+    }
+}
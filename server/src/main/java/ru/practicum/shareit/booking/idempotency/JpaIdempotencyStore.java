@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps responses in {@code booking_idempotency_keys}, so replays survive restarts and are shared between
+ * server instances. Expired rows are deleted by the writes, at most once per {@link #PURGE_INTERVAL}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.idempotency.store", havingValue = "db")
+@Slf4j
+public class JpaIdempotencyStore implements IdempotencyStore {
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    private final BookingIdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private volatile LocalDateTime nextPurge = LocalDateTime.MIN;
+
+    public JpaIdempotencyStore(BookingIdempotencyKeyRepository repository,
+                               ObjectMapper objectMapper,
+                               @Value("${shareit.booking.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return repository.findByKeyAndCreatedAfter(key, LocalDateTime.now().minus(ttl))
+                .map(row -> new IdempotentResponse(row.getFingerprint(), read(row.getResponse())));
+    }
+
+    @Override
+    public boolean put(String key, IdempotentResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isAfter(nextPurge)) {
+            nextPurge = now.plus(PURGE_INTERVAL);
+            int purged = repository.deleteAllCreatedBefore(now.minus(ttl));
+            log.info("Удалено просроченных ключей идемпотентности: {}", purged);
+        }
+        // an expired row of the key may not have been purged yet
+        repository.deleteCreatedBefore(key, now.minus(ttl));
+        try {
+            repository.insert(BookingIdempotencyKey.builder()
+                    .key(key)
+                    .fingerprint(response.getFingerprint())
+                    .response(write(response.getBooking()))
+                    .created(now)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Ключ идемпотентности {} уже сохранён другим запросом", key);
+            return false;
+        }
+    }
+
+    private String write(BookingDto booking) {
+        try {
+            return objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ бронирования", e);
+        }
+    }
+
+    private BookingDto read(String response) {
+        try {
+            return objectMapper.readValue(response, BookingDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать сохранённый ответ бронирования", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.owner;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.enums.Status;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@code owner_booking_view}: a booking denormalized with its item's owner and name, so owner listings
+ * are answered from one table. Kept up to date by {@link OwnerBookingProjection}.
+ */
+@Entity
+@Table(name = "owner_booking_view")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class OwnerBooking implements Persistable<Long> {
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "item_name")
+    private String itemName;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    private Booking booking;
+
+    @Transient
+    @ToString.Exclude
+    private boolean created;
+
+    public static OwnerBooking of(Booking booking) {
+        return new OwnerBooking(booking.getId(), booking.getItem().getOwnerId(), booking.getItem().getId(),
+                booking.getItem().getName(), booking.getBooker().getId(), booking.getStart(), booking.getEnd(),
+                booking.getStatus(), null, true);
+    }
+
+    /**
+     * Rows built by {@link #of} are inserted without the select {@code merge()} would issue first.
+     */
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.owner;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Writes booking changes through to {@code owner_booking_view}. Callers invoke it inside the transaction that
+ * writes the bookings, so the view commits or rolls back together with them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OwnerBookingProjection {
+    private static final String DELETE_ALL = "delete from owner_booking_view";
+    private static final String INSERT_ALL = "insert into owner_booking_view " +
+            "(booking_id, owner_id, item_id, item_name, booker_id, start_date, end_date, status) " +
+            "select b.booking_id, i.item_owner_id, i.item_id, i.item_name, b.booker_id, b.start_date, b.end_date, " +
+            "b.status from bookings b join items i on i.item_id = b.item_id";
+
+    private final OwnerBookingRepository ownerBookingRepository;
+    private final EntityManager entityManager;
+
+    public void add(Booking booking) {
+        ownerBookingRepository.save(OwnerBooking.of(booking));
+    }
+
+    /**
+     * Copies the statuses of already projected bookings, one statement per distinct status.
+     */
+    public void updateStatus(Collection<Booking> bookings) {
+        bookings.stream()
+                .collect(Collectors.groupingBy(Booking::getStatus,
+                        Collectors.mapping(Booking::getId, Collectors.toSet())))
+                .forEach((status, ids) -> ownerBookingRepository.updateStatus(ids, status));
+    }
+
+    public void renameItem(Long itemId, String name) {
+        ownerBookingRepository.updateItemName(itemId, name);
+    }
+
+    /**
+     * Repopulates the view from {@code bookings} from scratch.
+     */
+    @Transactional
+    public int rebuild() {
+        int removed = entityManager.createNativeQuery(DELETE_ALL).executeUpdate();
+        int inserted = entityManager.createNativeQuery(INSERT_ALL).executeUpdate();
+        log.info("Представление бронирований владельцев перестроено: удалено {}, добавлено {}", removed, inserted);
+        return inserted;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds {@code owner_booking_view} at startup when the server is launched with
+ * {@code --rebuild-owner-booking-view}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnerBookingRebuildCommand implements ApplicationRunner {
+    public static final String OPTION = "rebuild-owner-booking-view";
+
+    private final OwnerBookingProjection ownerBookingProjection;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            ownerBookingProjection.rebuild();
+        }
+    }
+}
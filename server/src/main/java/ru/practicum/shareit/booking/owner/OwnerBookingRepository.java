@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.owner;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.enums.Status;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface OwnerBookingRepository extends JpaRepository<OwnerBooking, Long>, OwnerBookingRepositoryCustom {
+
+    /**
+     * Bookings of the owner's items as compact rows, newest first, read from an open cursor in chunks of
+     * {@link BookingRepository#EXPORT_FETCH_SIZE} rows. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = BookingRepository.EXPORT_FETCH_SIZE))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingCompactDto(" +
+            "v.id, v.start, v.end, v.status, v.itemId, v.itemName, v.bookerId) " +
+            "from OwnerBooking v where v.ownerId = :ownerId order by v.start desc, v.id desc")
+    Stream<BookingCompactDto> streamByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Transactional
+    @Query("update OwnerBooking v set v.status = :status where v.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Modifying
+    @Transactional
+    @Query("update OwnerBooking v set v.itemName = :name where v.itemId = :itemId")
+    int updateItemName(@Param("itemId") Long itemId, @Param("name") String name);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.owner;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+
+import java.util.List;
+
+public interface OwnerBookingRepositoryCustom {
+    List<Booking> findBookings(Specification<OwnerBooking> specification, Sort sort, long offset, int limit);
+
+    List<BookingCompactDto> findAllCompact(Specification<OwnerBooking> specification, Sort sort,
+                                           long offset, int limit);
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OwnerBookingRepositoryCustomImpl implements OwnerBookingRepositoryCustom {
+    private final EntityManager entityManager;
+
+    /**
+     * Filters, orders and pages on {@code owner_booking_view} and joins only the rows of the page to their
+     * bookings, items and bookers, in one statement.
+     */
+    @Override
+    public List<Booking> findBookings(Specification<OwnerBooking> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<OwnerBooking> root = query.from(OwnerBooking.class);
+        Join<OwnerBooking, Booking> booking = root.join("booking");
+        booking.fetch("item");
+        booking.fetch("booker");
+        query.select(booking);
+        return page(query, root, specification, sort, offset, limit).getResultList();
+    }
+
+    /**
+     * Same filtering and paging as {@link #findBookings}, answered from the view's covering index alone.
+     */
+    @Override
+    public List<BookingCompactDto> findAllCompact(Specification<OwnerBooking> specification, Sort sort,
+                                                  long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingCompactDto> query = cb.createQuery(BookingCompactDto.class);
+        Root<OwnerBooking> root = query.from(OwnerBooking.class);
+        query.select(cb.construct(BookingCompactDto.class,
+                root.get("id"),
+                root.get("start"),
+                root.get("end"),
+                root.get("status"),
+                root.get("itemId"),
+                root.get("itemName"),
+                root.get("bookerId")));
+        return page(query, root, specification, sort, offset, limit).getResultList();
+    }
+
+    private <T> TypedQuery<T> page(CriteriaQuery<T> query, Root<OwnerBooking> root,
+                                   Specification<OwnerBooking> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+class BookingTransition {
+    private final Long bookingId;
+    private final TransitionType type;
+}
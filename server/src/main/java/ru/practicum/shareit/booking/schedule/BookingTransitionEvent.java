@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after a time-driven transition of a booking has been applied.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BookingTransitionEvent {
+    private final Long bookingId;
+    private final Long itemId;
+    private final Long itemOwnerId;
+    private final Long bookerId;
+    private final TransitionType type;
+    private final LocalDateTime occurredAt;
+}
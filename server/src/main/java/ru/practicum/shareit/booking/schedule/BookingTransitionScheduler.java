@@ -0,0 +1,224 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.changes.BookingChangeLog;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fires time-driven booking transitions from an in-memory timing wheel: WAITING bookings expire once they
+ * start, and starts/ends of APPROVED bookings roll item last/next pointers and publish
+ * {@link BookingTransitionEvent}s. Expiries are also published as {@link BookingChangedEvent}s, like any other
+ * status change. The wheel is loaded from {@code bookings} at startup, so transitions that
+ * fell due while the server was down fire on the first tick. Every transition is re-checked against the
+ * stored booking before it is applied, so stale or duplicate wheel entries are harmless.
+ */
+@Component
+@Slf4j
+public class BookingTransitionScheduler {
+    private static final int LEVELS = 4;
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingPointers itemBookingPointers;
+    private final OwnerBookingProjection ownerBookingProjection;
+    private final BookingSummaryCounters bookingSummaryCounters;
+    private final BookingChangeLog bookingChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long tickMillis;
+    private HierarchicalTimingWheel<BookingTransition> wheel;
+    private final List<BookingTransition> retries = new ArrayList<>();
+    private ScheduledExecutorService executor;
+
+    public BookingTransitionScheduler(BookingRepository bookingRepository,
+                                      ItemBookingPointers itemBookingPointers,
+                                      OwnerBookingProjection ownerBookingProjection,
+                                      BookingSummaryCounters bookingSummaryCounters,
+                                      BookingChangeLog bookingChangeLog,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${shareit.booking.wheel-tick-ms:1000}") long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Шаг планировщика должен быть положительным: " + tickMillis);
+        }
+        this.bookingRepository = bookingRepository;
+        this.itemBookingPointers = itemBookingPointers;
+        this.ownerBookingProjection = ownerBookingProjection;
+        this.bookingSummaryCounters = bookingSummaryCounters;
+        this.bookingChangeLog = bookingChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMillis = tickMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            wheel = new HierarchicalTimingWheel<>(tickMillis, LEVELS, toMillis(now));
+        }
+        List<TimelineEntry> entries = bookingRepository.findPendingTransitions(Status.WAITING, Status.APPROVED, now);
+        entries.forEach(this::schedule);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-transitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("Планировщик бронирований запущен: {} бронирований", entries.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        schedule(TimelineEntry.of(event));
+    }
+
+    public void schedule(Booking booking) {
+        schedule(TimelineEntry.of(booking));
+    }
+
+    /**
+     * Advances the wheel and the summary counters to the current time and applies every transition that fell due,
+     * together with those whose batch failed on the previous tick.
+     */
+    public void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<BookingTransition> due;
+            synchronized (this) {
+                due = wheel.advance(toMillis(now));
+                due.addAll(retries);
+                retries.clear();
+            }
+            bookingSummaryCounters.advance(now);
+            for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+                List<BookingTransition> batch = due.subList(from, Math.min(from + BATCH_SIZE, due.size()));
+                try {
+                    apply(batch);
+                } catch (OptimisticLockingFailureException e) {
+                    log.warn("Бронирования изменились во время обработки переходов, повтор: {}", e.getMessage());
+                    retry(batch);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка при обработке переходов бронирований", e);
+        }
+    }
+
+    private void retry(List<BookingTransition> batch) {
+        try {
+            apply(batch);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Переходы бронирований отложены до следующего шага: {}", batch.size());
+            synchronized (this) {
+                retries.addAll(batch);
+            }
+        }
+    }
+
+    private synchronized void schedule(TimelineEntry entry) {
+        if (wheel == null) {
+            return;
+        }
+        if (entry.getStatus() == Status.WAITING) {
+            wheel.schedule(new BookingTransition(entry.getBookingId(), TransitionType.EXPIRED),
+                    toMillis(entry.getStart()));
+        } else if (entry.getStatus() == Status.APPROVED) {
+            wheel.schedule(new BookingTransition(entry.getBookingId(), TransitionType.STARTED),
+                    toMillis(entry.getStart()));
+            wheel.schedule(new BookingTransition(entry.getBookingId(), TransitionType.ENDED),
+                    toMillis(entry.getEnd()));
+        }
+    }
+
+    private void apply(List<BookingTransition> transitions) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingTransitionEvent> events = transactionTemplate.execute(status -> {
+            Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(transitions.stream()
+                            .map(BookingTransition::getBookingId)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Booking::getId, Function.identity()));
+            List<Booking> expired = new ArrayList<>();
+            Set<Long> startedItemIds = new HashSet<>();
+            List<BookingTransitionEvent> applied = new ArrayList<>();
+            for (BookingTransition transition : transitions) {
+                Booking booking = bookings.get(transition.getBookingId());
+                if (booking == null || !isDue(booking, transition.getType(), now)) {
+                    continue;
+                }
+                if (transition.getType() == TransitionType.EXPIRED) {
+                    booking.setStatus(Status.EXPIRED);
+                    expired.add(booking);
+                } else if (transition.getType() == TransitionType.STARTED) {
+                    startedItemIds.add(booking.getItem().getId());
+                }
+                applied.add(new BookingTransitionEvent(booking.getId(), booking.getItem().getId(),
+                        booking.getItem().getOwnerId(), booking.getBooker().getId(), transition.getType(), now));
+            }
+            bookingRepository.saveAll(expired);
+            ownerBookingProjection.updateStatus(expired);
+            bookingChangeLog.record(expired);
+            expired.forEach(booking -> eventPublisher.publishEvent(BookingChangedEvent.of(booking)));
+            itemBookingPointers.refresh(startedItemIds);
+            return applied;
+        });
+        if (events != null && !events.isEmpty()) {
+            events.forEach(eventPublisher::publishEvent);
+            log.info("Применено переходов бронирований: {}", events.size());
+        }
+    }
+
+    private static boolean isDue(Booking booking, TransitionType type, LocalDateTime now) {
+        switch (type) {
+            case EXPIRED:
+                return booking.getStatus() == Status.WAITING && !booking.getStart().isAfter(now);
+            case STARTED:
+                return booking.getStatus() == Status.APPROVED && !booking.getStart().isAfter(now);
+            case ENDED:
+                return booking.getStatus() == Status.APPROVED && !booking.getEnd().isAfter(now);
+            default:
+                return false;
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
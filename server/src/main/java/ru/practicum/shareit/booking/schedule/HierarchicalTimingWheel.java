@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Hierarchical timing wheel: {@code levels} wheels of 64 slots, level k ticking every {@code tick * 64^k}
+ * milliseconds. Entries cascade to finer levels as their deadline approaches; deadlines beyond the top level
+ * wait in an overflow queue. Scheduling is O(1), advancing costs one slot per elapsed tick. Entries fire at most
+ * one tick late. Not thread-safe.
+ */
+class HierarchicalTimingWheel<T> {
+    private static final int SLOTS = 64;
+
+    private final long[] ticks;
+    private final List<List<Entry<T>>[]> wheels = new ArrayList<>();
+    private final PriorityQueue<Entry<T>> overflow = new PriorityQueue<>(
+            (left, right) -> Long.compare(left.deadline, right.deadline));
+    private final List<T> due = new ArrayList<>();
+    private long time;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tick, int levels, long startTime) {
+        ticks = new long[levels];
+        for (int level = 0; level < levels; level++) {
+            ticks[level] = level == 0 ? tick : ticks[level - 1] * SLOTS;
+            List<Entry<T>>[] slots = new List[SLOTS];
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[slot] = new ArrayList<>();
+            }
+            wheels.add(slots);
+        }
+        time = startTime - Math.floorMod(startTime, tick);
+    }
+
+    void schedule(T value, long deadline) {
+        size++;
+        place(new Entry<>(value, deadline));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Moves the wheel to {@code now} and returns every value whose deadline has passed.
+     */
+    List<T> advance(long now) {
+        while (time + ticks[0] <= now) {
+            time += ticks[0];
+            for (int level = ticks.length - 1; level > 0; level--) {
+                if (time % ticks[level] == 0) {
+                    if (level == ticks.length - 1) {
+                        drainOverflow();
+                    }
+                    process(level, (int) Math.floorMod(time / ticks[level], SLOTS));
+                }
+            }
+            process(0, (int) Math.floorMod(time / ticks[0], SLOTS));
+        }
+        List<T> result = new ArrayList<>(due);
+        size -= result.size();
+        due.clear();
+        return result;
+    }
+
+    private void process(int level, int slot) {
+        List<Entry<T>> entries = wheels.get(level)[slot];
+        if (entries.isEmpty()) {
+            return;
+        }
+        wheels.get(level)[slot] = new ArrayList<>();
+        entries.forEach(this::place);
+    }
+
+    private void drainOverflow() {
+        int top = ticks.length - 1;
+        while (!overflow.isEmpty()
+                && Math.floorDiv(overflow.peek().deadline, ticks[top]) - Math.floorDiv(time, ticks[top]) < SLOTS) {
+            place(overflow.poll());
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadline <= time) {
+            due.add(entry.value);
+            return;
+        }
+        long slot = -Math.floorDiv(-entry.deadline, ticks[0]);
+        if (slot - time / ticks[0] <= SLOTS) {
+            wheels.get(0)[(int) Math.floorMod(slot, SLOTS)].add(entry);
+            return;
+        }
+        for (int level = 1; level < ticks.length; level++) {
+            slot = Math.floorDiv(entry.deadline, ticks[level]);
+            if (slot - Math.floorDiv(time, ticks[level]) < SLOTS) {
+                wheels.get(level)[(int) Math.floorMod(slot, SLOTS)].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long deadline;
+
+        private Entry(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+}
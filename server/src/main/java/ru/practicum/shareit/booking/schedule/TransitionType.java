@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.schedule;
+
+public enum TransitionType {
+    EXPIRED,
+    STARTED,
+    ENDED
+}
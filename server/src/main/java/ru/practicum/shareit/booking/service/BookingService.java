@@ -1,18 +1,53 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(BookingInputDto bookingInputDto, Long bookerId);
 
     BookingDto update(Long bookingId, Long userId, Boolean approved);
 
+    BookingDto update(Long bookingId, Long userId, Boolean approved, Long version);
+
+    List<BookingDecisionResultDto> updateAll(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getById(Long bookingId, Long userId);
 
     List<BookingDto> getBookings(String state, Long userId, Integer from, Integer size);
 
     List<BookingDto> getBookingsByOwner(String state, Long ownerId, Integer from, Integer size);
+
+    List<BookingDto> getBookings(String state, Long userId, BookingCursor cursor, Integer size);
+
+    List<BookingDto> getBookingsByOwner(String state, Long ownerId, BookingCursor cursor, Integer size);
+
+    List<BookingCompactDto> getCompactBookings(String state, Long userId, BookingCursor cursor,
+                                               Integer from, Integer size);
+
+    List<BookingCompactDto> getCompactBookingsByOwner(String state, Long ownerId, BookingCursor cursor,
+                                                      Integer from, Integer size);
+
+    BookingSummaryDto getSummary(Long userId);
+
+    BookingSummaryDto getSummaryByOwner(Long ownerId);
+
+    BookingChangesDto getChanges(Long userId, String since, Integer limit);
+
+    BookingChangesDto getChangesByOwner(Long ownerId, String since, Integer limit);
+
+    void checkUser(Long userId);
+
+    void exportBookings(Long userId, Consumer<BookingCompactDto> sink);
+
+    void exportBookingsByOwner(Long ownerId, Consumer<BookingCompactDto> sink);
 }
@@ -2,36 +2,83 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import ru.practicum.shareit.booking.*;
+import ru.practicum.shareit.booking.archive.ArchivedBooking;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.archive.BookingArchiveRepository;
+import ru.practicum.shareit.booking.changes.BookingChangeBatch;
+import ru.practicum.shareit.booking.changes.BookingChangeLog;
+import ru.practicum.shareit.booking.changes.BookingChangeToken;
+import ru.practicum.shareit.booking.dto.BookingChangesDto;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.owner.OwnerBooking;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
+import ru.practicum.shareit.booking.owner.OwnerBookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.exception.booking.BookingConflictException;
 import ru.practicum.shareit.exception.booking.BookingCreateException;
 import ru.practicum.shareit.exception.booking.BookingNotFoundException;
+import ru.practicum.shareit.exception.booking.BookingOverlapException;
 import ru.practicum.shareit.exception.booking.InvalidBookingException;
+import ru.practicum.shareit.exception.booking.InvalidChangesRequestException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final int MAX_DECISIONS = 100;
+    private static final int MAX_CHANGES = 1000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingTimelineIndex bookingTimelineIndex;
+    private final ItemLockStripes itemLockStripes;
+    private final ItemBookingPointers itemBookingPointers;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OwnerBookingRepository ownerBookingRepository;
+    private final OwnerBookingProjection ownerBookingProjection;
+    private final TransactionOperations transactionOperations;
+    private final BookingSummaryCounters bookingSummaryCounters;
+    private final BookingArchive bookingArchive;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingChangeLog bookingChangeLog;
 
     @Override
     public BookingDto create(BookingInputDto bookingInputDto, Long bookerId) {
@@ -54,44 +101,153 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStart().equals(booking.getEnd())) {
             throw new BookingCreateException("Время начала и окончания бронирования не должны совпадать");
         }
+        Booking savedBooking = itemLockStripes.withLock(item.getId(), () -> {
+            checkOverlap(booking);
+            return save(booking);
+        });
         log.info("Создан запрос на бронирование вещи");
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        return BookingMapper.toBookingDto(savedBooking);
     }
 
     @Override
     public BookingDto update(Long bookingId, Long userId, Boolean approved) {
+        return update(bookingId, userId, approved, null);
+    }
+
+    /**
+     * The change is written with {@code where version = ?}: if another request changed the booking since it
+     * was read, or {@code version} is given and no longer current, a {@link BookingConflictException} is thrown.
+     */
+    @Override
+    public BookingDto update(Long bookingId, Long userId, Boolean approved, Long version) {
         getUser(userId);
         Booking booking = getBooking(bookingId);
+        if (version != null && !version.equals(booking.getVersion())) {
+            throw new BookingConflictException(bookingId);
+        }
+        Status status = decide(booking, userId, approved);
 
-        if (booking.getBooker().getId().equals(userId)) {
-            if (!approved) {
-                booking.setStatus(Status.CANCELED);
-            } else {
-                throw new InvalidBookingException("Пользователь не может подтвердить бронирование");
-            }
-        } else if (booking.getItem().getOwnerId().equals(userId) && (!booking.getStatus().equals(Status.CANCELED))) {
-            if (!booking.getStatus().equals(Status.WAITING)) {
-                throw new BookingCreateException("Решение по бронированию уже есть");
-            }
-            if (approved) {
+        Booking savedBooking;
+        if (status == Status.APPROVED) {
+            savedBooking = itemLockStripes.withLock(booking.getItem().getId(), () -> {
+                checkOverlap(booking);
                 booking.setStatus(Status.APPROVED);
-            } else {
-                booking.setStatus(Status.REJECTED);
-            }
+                return save(booking);
+            });
         } else {
-            if (booking.getStatus().equals(Status.CANCELED)) {
-                throw new InvalidBookingException("Бронирование отменено!");
-            } else {
-                throw new InvalidBookingException("Подтвердить бронирование может только владелец");
+            booking.setStatus(status);
+            savedBooking = save(booking);
+        }
+        return BookingMapper.toBookingDto(savedBooking);
+    }
+
+    /**
+     * Applies the decisions in one transaction. If another request changed one of the bookings meanwhile, the
+     * batch is rolled back and each decision is retried on its own, so the conflict is reported only for the
+     * bookings it concerns.
+     */
+    @Override
+    public List<BookingDecisionResultDto> updateAll(Long userId, List<BookingDecisionDto> decisions) {
+        if (decisions == null || decisions.isEmpty()) {
+            throw new BookingCreateException("Не указаны решения по бронированиям");
+        }
+        if (decisions.size() > MAX_DECISIONS) {
+            throw new BookingCreateException(
+                    String.format("За один запрос можно принять не более %s решений", MAX_DECISIONS));
+        }
+        getUser(userId);
+        List<BookingDecisionResultDto> results;
+        try {
+            results = transactionOperations.execute(status -> applyAll(userId, decisions));
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Решения по бронированиям применяются по одному: {}", e.getMessage());
+            results = applyEach(userId, decisions);
+        }
+        log.info("Применено решений по бронированиям: {} из {}",
+                results.stream().filter(BookingDecisionResultDto::getSuccess).count(), decisions.size());
+        return results;
+    }
+
+    private List<BookingDecisionResultDto> applyAll(Long userId, List<BookingDecisionDto> decisions) {
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        itemLockStripes.lockUntilCompletion(decisions.stream()
+                .filter(decision -> Boolean.TRUE.equals(decision.getApproved()))
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(Objects::nonNull)
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+
+        List<Booking> changed = new ArrayList<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.getBookingId());
+            try {
+                checkBookingId(decision);
+                if (booking == null) {
+                    throw new BookingNotFoundException(decision.getBookingId());
+                }
+                if (changed.contains(booking)) {
+                    throw new BookingCreateException("Решение по бронированию уже есть");
+                }
+                Status status = decide(booking, userId, decision.getApproved());
+                if (status == Status.APPROVED) {
+                    itemLockStripes.withLock(booking.getItem().getId(), () -> {
+                        checkOverlap(booking);
+                        checkOverlap(booking, changed);
+                        booking.setStatus(Status.APPROVED);
+                        return track(booking);
+                    });
+                } else {
+                    booking.setStatus(status);
+                    track(booking);
+                }
+                changed.add(booking);
+                results.add(BookingDecisionResultDto.applied(BookingMapper.toBookingDto(booking)));
+            } catch (BookingNotFoundException | BookingCreateException | InvalidBookingException
+                     | BookingOverlapException e) {
+                results.add(BookingDecisionResultDto.rejected(decision.getBookingId(), e.getMessage()));
             }
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        bookingRepository.saveAll(changed);
+        ownerBookingProjection.updateStatus(changed);
+        bookingChangeLog.record(changed);
+        itemBookingPointers.refresh(changed.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        return results;
+    }
+
+    private List<BookingDecisionResultDto> applyEach(Long userId, List<BookingDecisionDto> decisions) {
+        Set<Long> decided = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            try {
+                checkBookingId(decision);
+                if (!decided.add(decision.getBookingId())) {
+                    throw new BookingCreateException("Решение по бронированию уже есть");
+                }
+                results.add(BookingDecisionResultDto.applied(
+                        update(decision.getBookingId(), userId, decision.getApproved())));
+            } catch (BookingNotFoundException | BookingCreateException | InvalidBookingException
+                     | BookingOverlapException | BookingConflictException e) {
+                results.add(BookingDecisionResultDto.rejected(decision.getBookingId(), e.getMessage()));
+            }
+        }
+        return results;
     }
 
     @Override
     public BookingDto getById(Long bookingId, Long userId) {
         getUser(userId);
-        Booking booking = getBooking(bookingId);
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> bookingArchiveRepository.findWithItemAndBookerById(bookingId)
+                        .map(ArchivedBooking::toBooking))
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
         if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwnerId().equals(userId)) {
             log.info("Запрошено бронирование: {}", booking);
             return BookingMapper.toBookingDto(booking);
@@ -103,108 +259,309 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> getBookings(String state, Long userId, Integer from, Integer size) {
         getUser(userId);
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
-        List<Booking> bookings;
-        switch (State.valueOf(state.toUpperCase())) {
-            case ALL:
-                bookings = bookingRepository.findByBookerId(userId, pageRequest);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                        userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsBefore(
-                        userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartIsAfter(
-                        userId,
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatus(
-                        userId,
-                        Status.WAITING,
-                        pageRequest);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatus(
-                        userId,
-                        Status.REJECTED,
-                        pageRequest);
-                break;
-            default:
-                log.warn("Передан некорректный параметр: {}", state);
-                throw new IllegalArgumentException("Unknown state: " + state);
-        }
         log.info("Запрошен список всех бронирований текущего пользователя");
-        return bookings
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return find(userId, state, null, from, size);
     }
 
     @Override
     public List<BookingDto> getBookingsByOwner(String state, Long ownerId, Integer from, Integer size) {
         getUser(ownerId);
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
+        log.info("Запрошен список бронирований для всех вещей текущего пользователя");
+        return findByOwner(ownerId, state, null, from, size);
+    }
+
+    @Override
+    public List<BookingDto> getBookings(String state, Long userId, BookingCursor cursor, Integer size) {
+        getUser(userId);
+        log.info("Запрошен список бронирований текущего пользователя после курсора: {}", cursor);
+        return find(userId, state, cursor, 0, size);
+    }
+
+    @Override
+    public List<BookingDto> getBookingsByOwner(String state, Long ownerId, BookingCursor cursor, Integer size) {
+        getUser(ownerId);
+        log.info("Запрошен список бронирований для вещей текущего пользователя после курсора: {}", cursor);
+        return findByOwner(ownerId, state, cursor, 0, size);
+    }
+
+    @Override
+    public List<BookingCompactDto> getCompactBookings(String state, Long userId, BookingCursor cursor,
+                                                      Integer from, Integer size) {
+        getUser(userId);
+        log.info("Запрошен компактный список бронирований текущего пользователя");
+        Specification<Booking> specification = specification(BookingSpecifications.hasBooker(userId), state, cursor);
+        if (!isPast(state)) {
+            return bookingRepository.findAllCompact(specification, SORT, from, size);
+        }
+        Specification<ArchivedBooking> archived = specification(BookingSpecifications.hasArchivedBooker(userId),
+                state, cursor);
+        return bookingArchive.withArchived(
+                (offset, limit) -> bookingRepository.findAllCompact(specification, SORT, offset, limit),
+                (offset, limit) -> bookingArchiveRepository.findAllCompact(archived, SORT, offset, limit),
+                BookingCompactDto::getStart, BookingCompactDto::getId, from, size);
+    }
+
+    @Override
+    public List<BookingCompactDto> getCompactBookingsByOwner(String state, Long ownerId, BookingCursor cursor,
+                                                             Integer from, Integer size) {
+        getUser(ownerId);
+        log.info("Запрошен компактный список бронирований для вещей текущего пользователя");
+        Specification<OwnerBooking> specification = specification(BookingSpecifications.hasOwner(ownerId), state,
+                cursor);
+        if (!isPast(state)) {
+            return ownerBookingRepository.findAllCompact(specification, SORT, from, size);
+        }
+        Specification<ArchivedBooking> archived = specification(BookingSpecifications.hasArchivedItemOwner(ownerId),
+                state, cursor);
+        return bookingArchive.withArchived(
+                (offset, limit) -> ownerBookingRepository.findAllCompact(specification, SORT, offset, limit),
+                (offset, limit) -> bookingArchiveRepository.findAllCompact(archived, SORT, offset, limit),
+                BookingCompactDto::getStart, BookingCompactDto::getId, from, size);
+    }
+
+    @Override
+    public BookingSummaryDto getSummary(Long userId) {
+        getUser(userId);
+        log.info("Запрошена сводка бронирований пользователя с id: {}", userId);
+        return bookingSummaryCounters.getBookerSummary(userId);
+    }
+
+    @Override
+    public BookingSummaryDto getSummaryByOwner(Long ownerId) {
+        getUser(ownerId);
+        log.info("Запрошена сводка бронирований вещей владельца с id: {}", ownerId);
+        return bookingSummaryCounters.getOwnerSummary(ownerId);
+    }
+
+    @Override
+    public BookingChangesDto getChanges(Long userId, String since, Integer limit) {
+        getUser(userId);
+        log.info("Запрошены изменения бронирований пользователя с id: {} после: {}", userId, since);
+        checkChangesLimit(limit);
+        return toChangesDto(bookingChangeLog.findByBooker(userId, BookingChangeToken.decode(since), limit));
+    }
+
+    @Override
+    public BookingChangesDto getChangesByOwner(Long ownerId, String since, Integer limit) {
+        getUser(ownerId);
+        log.info("Запрошены изменения бронирований вещей владельца с id: {} после: {}", ownerId, since);
+        checkChangesLimit(limit);
+        return toChangesDto(bookingChangeLog.findByOwner(ownerId, BookingChangeToken.decode(since), limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkUser(Long userId) {
+        getUser(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookings(Long userId, Consumer<BookingCompactDto> sink) {
+        getUser(userId);
+        try (Stream<BookingCompactDto> bookings = bookingRepository.streamByBookerId(userId)) {
+            bookings.forEach(sink);
+        }
+        try (Stream<BookingCompactDto> bookings = bookingArchiveRepository.streamByBookerId(userId)) {
+            bookings.forEach(sink);
+        }
+        log.info("Выгружены бронирования пользователя с id: {}", userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsByOwner(Long ownerId, Consumer<BookingCompactDto> sink) {
+        getUser(ownerId);
+        try (Stream<BookingCompactDto> bookings = ownerBookingRepository.streamByOwnerId(ownerId)) {
+            bookings.forEach(sink);
+        }
+        try (Stream<BookingCompactDto> bookings = bookingArchiveRepository.streamByItemOwnerId(ownerId)) {
+            bookings.forEach(sink);
+        }
+        log.info("Выгружены бронирования вещей владельца с id: {}", ownerId);
+    }
+
+    /**
+     * PAST listings also read {@code bookings_archive} once the page reaches back to archived bookings.
+     */
+    private List<BookingDto> find(Long bookerId, String state, BookingCursor cursor, Integer from, Integer size) {
+        Specification<Booking> specification = specification(BookingSpecifications.hasBooker(bookerId), state,
+                cursor);
         List<Booking> bookings;
-        switch (State.valueOf(state.toUpperCase())) {
-            case ALL:
-                bookings = bookingRepository.findByItem_OwnerId(ownerId, pageRequest);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(
-                        ownerId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItem_OwnerIdAndEndIsBefore(
-                        ownerId,
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItem_OwnerIdAndStartIsAfter(
-                        ownerId,
-                        LocalDateTime.now(),
-                        pageRequest);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItem_OwnerIdAndStatus(
-                        ownerId,
-                        Status.WAITING,
-                        pageRequest);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItem_OwnerIdAndStatus(
-                        ownerId,
-                        Status.REJECTED,
-                        pageRequest);
-                break;
-            default:
-                log.warn("Передан некорректный параметр: {}", state);
-                throw new IllegalArgumentException("Unknown state: " + state);
+        if (isPast(state)) {
+            Specification<ArchivedBooking> archived = specification(
+                    BookingSpecifications.hasArchivedBooker(bookerId), state, cursor);
+            bookings = bookingArchive.withArchived(
+                    (offset, limit) -> bookingRepository.findAll(specification, SORT, offset, limit),
+                    (offset, limit) -> bookingArchiveRepository.findAll(archived, SORT, offset, limit),
+                    Booking::getStart, Booking::getId, from, size);
+        } else {
+            bookings = bookingRepository.findAll(specification, SORT, from, size);
         }
-        log.info("Запрошен список бронирований для всех вещей текущего пользователя");
-        return bookings
-                .stream()
+        return bookings.stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Owner listings are read from {@code owner_booking_view} instead of joining bookings to items; PAST
+     * listings fall back to {@code bookings_archive} as in {@link #find}.
+     */
+    private List<BookingDto> findByOwner(Long ownerId, String state, BookingCursor cursor,
+                                         Integer from, Integer size) {
+        Specification<OwnerBooking> specification = specification(BookingSpecifications.hasOwner(ownerId), state,
+                cursor);
+        List<Booking> bookings;
+        if (isPast(state)) {
+            Specification<ArchivedBooking> archived = specification(
+                    BookingSpecifications.hasArchivedItemOwner(ownerId), state, cursor);
+            bookings = bookingArchive.withArchived(
+                    (offset, limit) -> ownerBookingRepository.findBookings(specification, SORT, offset, limit),
+                    (offset, limit) -> bookingArchiveRepository.findAll(archived, SORT, offset, limit),
+                    Booking::getStart, Booking::getId, from, size);
+        } else {
+            bookings = ownerBookingRepository.findBookings(specification, SORT, from, size);
+        }
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Current state of the changed bookings, looked up in the archive if they have been moved there since.
+     * Bookings deleted with their item or user are left out.
+     */
+    private BookingChangesDto toChangesDto(BookingChangeBatch batch) {
+        List<BookingDto> bookings = new ArrayList<>();
+        if (!batch.getBookingIds().isEmpty()) {
+            Map<Long, Booking> byId = bookingRepository.findAllWithItemAndBookerByIdIn(batch.getBookingIds())
+                    .stream()
+                    .collect(Collectors.toMap(Booking::getId, Function.identity()));
+            List<Long> archived = batch.getBookingIds().stream()
+                    .filter(id -> !byId.containsKey(id))
+                    .collect(Collectors.toList());
+            if (!archived.isEmpty()) {
+                bookingArchiveRepository.findAllWithItemAndBookerByIdIn(archived)
+                        .forEach(booking -> byId.put(booking.getId(), booking.toBooking()));
+            }
+            batch.getBookingIds().stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .map(BookingMapper::toBookingDto)
+                    .forEach(bookings::add);
+        }
+        return new BookingChangesDto(bookings, BookingChangeToken.encode(batch.getNext()));
+    }
+
+    private static boolean isPast(String state) {
+        return State.valueOf(state.toUpperCase()) == State.PAST;
+    }
+
+    private static <T> Specification<T> specification(Specification<T> role, String state, BookingCursor cursor) {
+        return Specification.where(role)
+                .and(BookingSpecifications.<T>inState(State.valueOf(state.toUpperCase()), LocalDateTime.now()))
+                .and(BookingSpecifications.<T>after(cursor));
+    }
+
+    private void checkOverlap(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        boolean overlaps = bookingTimelineIndex.isReady()
+                ? bookingTimelineIndex.findOverlap(itemId, Status.APPROVED, booking.getStart(), booking.getEnd()).isPresent()
+                : bookingRepository.existsOverlapping(itemId, Status.APPROVED, booking.getStart(), booking.getEnd());
+        if (overlaps) {
+            throw new BookingOverlapException(itemId);
+        }
+    }
+
+    /**
+     * Status the booking moves to when {@code userId} approves or rejects it, or an exception if the decision
+     * is not allowed.
+     */
+    private Status decide(Booking booking, Long userId, Boolean approved) {
+        if (approved == null) {
+            throw new BookingCreateException("Не указано решение по бронированию");
+        }
+        if (booking.getBooker().getId().equals(userId)) {
+            if (!approved) {
+                return Status.CANCELED;
+            }
+            throw new InvalidBookingException("Пользователь не может подтвердить бронирование");
+        }
+        if (booking.getItem().getOwnerId().equals(userId) && (!booking.getStatus().equals(Status.CANCELED))) {
+            if (!booking.getStatus().equals(Status.WAITING)) {
+                throw new BookingCreateException("Решение по бронированию уже есть");
+            }
+            return approved ? Status.APPROVED : Status.REJECTED;
+        }
+        if (booking.getStatus().equals(Status.CANCELED)) {
+            throw new InvalidBookingException("Бронирование отменено!");
+        }
+        throw new InvalidBookingException("Подтвердить бронирование может только владелец");
+    }
+
+    private static void checkChangesLimit(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_CHANGES) {
+            throw new InvalidChangesRequestException(
+                    String.format("Количество изменений должно быть от 1 до %s: %s", MAX_CHANGES, limit));
+        }
+    }
+
+    private static void checkBookingId(BookingDecisionDto decision) {
+        if (decision.getBookingId() == null) {
+            throw new BookingCreateException("Не указано бронирование");
+        }
+    }
+
+    private void checkOverlap(Booking booking, List<Booking> pending) {
+        boolean overlaps = pending.stream()
+                .anyMatch(other -> other.getStatus() == Status.APPROVED
+                        && other.getItem().getId().equals(booking.getItem().getId())
+                        && other.getStart().isBefore(booking.getEnd())
+                        && other.getEnd().isAfter(booking.getStart()));
+        if (overlaps) {
+            throw new BookingOverlapException(booking.getItem().getId());
+        }
+    }
+
+    /**
+     * Writes the booking, its {@code owner_booking_view} row and, for a decision, the item's booking pointers in
+     * one transaction.
+     */
+    private Booking save(Booking booking) {
+        boolean created = booking.getId() == null;
+        try {
+            return transactionOperations.execute(status -> {
+                Booking savedBooking = bookingRepository.save(booking);
+                // merge() hands back lazy references; keep the item and booker that are already loaded
+                savedBooking.setItem(booking.getItem());
+                savedBooking.setBooker(booking.getBooker());
+                if (created) {
+                    ownerBookingProjection.add(savedBooking);
+                } else {
+                    ownerBookingProjection.updateStatus(List.of(savedBooking));
+                }
+                bookingChangeLog.record(List.of(savedBooking));
+                track(savedBooking);
+                if (!created) {
+                    // after track(): the pointers are read from the timeline index, which follows the event
+                    itemBookingPointers.refresh(List.of(savedBooking.getItem().getId()));
+                }
+                return savedBooking;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            throw new BookingConflictException(booking.getId());
+        }
+    }
+
+    /**
+     * Tells the in-memory indexes, the transition scheduler and the feed about the change, in the transaction
+     * of the write.
+     */
+    private Booking track(Booking booking) {
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+        return booking;
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
     }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks serializing the overlap check and the write of bookings of the same item. Inside a transaction
+ * a lock is held until the transaction completes, so what one writer saved is committed before the next writer
+ * of the item checks against it.
+ */
+@Component
+public class ItemLockStripes {
+    private final ReentrantLock[] locks;
+
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Количество блокировок должно быть положительным: " + stripes);
+        }
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(itemId)];
+        lock.lock();
+        boolean heldUntilCompletion = TransactionHooks.afterCompletion(lock::unlock);
+        try {
+            return action.get();
+        } finally {
+            if (!heldUntilCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Locks the stripes of all the items until the current transaction completes. Stripes are taken in ascending
+     * order, so two transactions locking overlapping sets of items cannot deadlock; later {@link #withLock} calls
+     * on these items in the same transaction do not wait.
+     */
+    public void lockUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировки до завершения транзакции требуют активной транзакции");
+        }
+        itemIds.stream()
+                .map(this::stripe)
+                .distinct()
+                .sorted()
+                .forEach(stripe -> {
+                    ReentrantLock lock = locks[stripe];
+                    lock.lock();
+                    TransactionHooks.afterCompletion(lock::unlock);
+                });
+    }
+
+    private int stripe(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId) * 0x9E3779B9, locks.length);
+    }
+}
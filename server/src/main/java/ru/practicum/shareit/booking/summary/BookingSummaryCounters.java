@@ -0,0 +1,254 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+import static ru.practicum.shareit.common.TransactionHooks.onRollback;
+
+/**
+ * Per-user counts of bookings by {@link State}, for the booker and the owner roles. Status counts change with
+ * the writes; CURRENT, PAST and FUTURE are taken at the transition scheduler's clock, which moves bookings
+ * between them as their starts and ends pass, so they lag the wall clock by at most one tick. Changes made
+ * inside a transaction are undone if that transaction rolls back.
+ */
+@Component
+@Slf4j
+public class BookingSummaryCounters {
+    private static final int STATES = State.values().length;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Tracked> bookings = new HashMap<>();
+    private final Map<Long, long[]> byBooker = new HashMap<>();
+    private final Map<Long, long[]> byOwner = new HashMap<>();
+    private final PriorityQueue<Boundary> boundaries = new PriorityQueue<>(
+            Comparator.comparing((Boundary boundary) -> boundary.time));
+    private LocalDateTime clock = LocalDateTime.now();
+
+    public BookingSummaryCounters(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TimelineEntry> entries = new ArrayList<>(
+                bookingRepository.findTimelineEntries(EnumSet.allOf(Status.class)));
+        entries.addAll(bookingRepository.findArchivedTimelineEntries());
+        synchronized (this) {
+            bookings.clear();
+            byBooker.clear();
+            byOwner.clear();
+            boundaries.clear();
+            clock = now;
+            entries.forEach(this::apply);
+        }
+        log.info("Счётчики бронирований построены: {} бронирований", entries.size());
+    }
+
+    public BookingSummaryDto getBookerSummary(Long bookerId) {
+        return toDto(byBooker, bookerId);
+    }
+
+    public BookingSummaryDto getOwnerSummary(Long ownerId) {
+        return toDto(byOwner, ownerId);
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        put(TimelineEntry.of(event));
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        removeItem(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeUser(event.getUserId());
+    }
+
+    public void put(Booking booking) {
+        put(TimelineEntry.of(booking));
+    }
+
+    public void put(TimelineEntry entry) {
+        TimelineEntry previous;
+        synchronized (this) {
+            previous = apply(entry);
+        }
+        onRollback(() -> {
+            synchronized (this) {
+                if (previous == null) {
+                    remove(entry.getBookingId());
+                } else {
+                    apply(previous);
+                }
+            }
+        });
+    }
+
+    public void removeItem(Long itemId) {
+        removeAll(entry -> entry.getItemId().equals(itemId));
+    }
+
+    public void removeUser(Long userId) {
+        removeAll(entry -> entry.getItemOwnerId().equals(userId) || entry.getBookerId().equals(userId));
+    }
+
+    /**
+     * Moves the clock to {@code now}, re-counting the bookings that started or ended since the last call.
+     */
+    public synchronized void advance(LocalDateTime now) {
+        if (!now.isAfter(clock)) {
+            return;
+        }
+        clock = now;
+        while (!boundaries.isEmpty() && boundaries.peek().time.isBefore(now)) {
+            Tracked tracked = bookings.get(boundaries.poll().bookingId);
+            if (tracked == null) {
+                continue;
+            }
+            State phase = phase(tracked.entry, now);
+            if (phase != tracked.phase) {
+                count(tracked.entry, tracked.phase, -1);
+                tracked.phase = phase;
+                count(tracked.entry, phase, 1);
+            }
+        }
+    }
+
+    private TimelineEntry apply(TimelineEntry entry) {
+        Tracked previous = bookings.get(entry.getBookingId());
+        if (previous != null) {
+            count(previous.entry, previous.phase, -1);
+        } else {
+            schedule(entry);
+        }
+        Tracked tracked = new Tracked(entry, phase(entry, clock));
+        bookings.put(entry.getBookingId(), tracked);
+        count(entry, tracked.phase, 1);
+        return previous == null ? null : previous.entry;
+    }
+
+    private void remove(Long bookingId) {
+        Tracked tracked = bookings.remove(bookingId);
+        if (tracked != null) {
+            count(tracked.entry, tracked.phase, -1);
+        }
+    }
+
+    private void removeAll(Predicate<TimelineEntry> filter) {
+        List<TimelineEntry> removed = new ArrayList<>();
+        synchronized (this) {
+            bookings.values().stream()
+                    .map(tracked -> tracked.entry)
+                    .filter(filter)
+                    .forEach(removed::add);
+            removed.forEach(entry -> remove(entry.getBookingId()));
+        }
+        onRollback(() -> {
+            synchronized (this) {
+                removed.forEach(this::apply);
+            }
+        });
+    }
+
+    private void schedule(TimelineEntry entry) {
+        if (!entry.getStart().isBefore(clock)) {
+            boundaries.add(new Boundary(entry.getStart(), entry.getBookingId()));
+        }
+        if (!entry.getEnd().isBefore(clock)) {
+            boundaries.add(new Boundary(entry.getEnd(), entry.getBookingId()));
+        }
+    }
+
+    private void count(TimelineEntry entry, State phase, int delta) {
+        long[] booker = byBooker.computeIfAbsent(entry.getBookerId(), id -> new long[STATES]);
+        long[] owner = byOwner.computeIfAbsent(entry.getItemOwnerId(), id -> new long[STATES]);
+        add(booker, owner, State.ALL, delta);
+        if (phase != null) {
+            add(booker, owner, phase, delta);
+        }
+        if (entry.getStatus() == Status.WAITING) {
+            add(booker, owner, State.WAITING, delta);
+        } else if (entry.getStatus() == Status.REJECTED) {
+            add(booker, owner, State.REJECTED, delta);
+        }
+    }
+
+    private static void add(long[] booker, long[] owner, State state, int delta) {
+        booker[state.ordinal()] += delta;
+        owner[state.ordinal()] += delta;
+    }
+
+    private synchronized BookingSummaryDto toDto(Map<Long, long[]> counters, Long userId) {
+        long[] counts = counters.getOrDefault(userId, new long[STATES]);
+        return BookingSummaryDto.builder()
+                .all(counts[State.ALL.ordinal()])
+                .current(counts[State.CURRENT.ordinal()])
+                .past(counts[State.PAST.ordinal()])
+                .future(counts[State.FUTURE.ordinal()])
+                .waiting(counts[State.WAITING.ordinal()])
+                .rejected(counts[State.REJECTED.ordinal()])
+                .build();
+    }
+
+    /**
+     * CURRENT, PAST or FUTURE with the same strict comparisons as the list filters, or null at the very
+     * instant a booking starts or ends.
+     */
+    private static State phase(TimelineEntry entry, LocalDateTime now) {
+        if (entry.getStart().isAfter(now)) {
+            return State.FUTURE;
+        }
+        if (entry.getEnd().isBefore(now)) {
+            return State.PAST;
+        }
+        if (entry.getStart().isBefore(now) && entry.getEnd().isAfter(now)) {
+            return State.CURRENT;
+        }
+        return null;
+    }
+
+    private static class Tracked {
+        private final TimelineEntry entry;
+        private State phase;
+
+        Tracked(TimelineEntry entry, State phase) {
+            this.entry = entry;
+            this.phase = phase;
+        }
+    }
+
+    private static class Boundary {
+        private final LocalDateTime time;
+        private final Long bookingId;
+
+        Boundary(LocalDateTime time, Long bookingId) {
+            this.time = time;
+            this.bookingId = bookingId;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static ru.practicum.shareit.common.TransactionHooks.onRollback;
+
+/**
+ * Per-item interval index of APPROVED and WAITING bookings. Changes made inside a transaction are undone
+ * if that transaction rolls back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingTimelineIndex {
+    static final Set<Status> TRACKED_STATUSES = EnumSet.of(Status.APPROVED, Status.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        timelines.clear();
+        List<TimelineEntry> entries = bookingRepository.findTimelineEntries(TRACKED_STATUSES);
+        entries.forEach(this::apply);
+        ready = true;
+        log.info("Индекс бронирований построен: {} бронирований, {} вещей", entries.size(), timelines.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        put(TimelineEntry.of(event));
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        removeItem(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeUser(event.getUserId());
+    }
+
+    public void put(Booking booking) {
+        put(TimelineEntry.of(booking));
+    }
+
+    public void put(TimelineEntry entry) {
+        TimelineEntry previous = apply(entry);
+        onRollback(() -> {
+            if (previous == null) {
+                timeline(entry.getItemId()).ifPresent(timeline -> timeline.remove(entry.getBookingId()));
+            } else {
+                apply(previous);
+            }
+        });
+    }
+
+    public void removeItem(Long itemId) {
+        ItemTimeline removed = timelines.remove(itemId);
+        if (removed != null) {
+            List<TimelineEntry> entries = removed.entries();
+            onRollback(() -> entries.forEach(this::apply));
+        }
+    }
+
+    public void removeUser(Long userId) {
+        List<TimelineEntry> removed = new ArrayList<>();
+        timelines.forEach((itemId, timeline) -> {
+            if (timeline.getOwnerId().equals(userId) && timelines.remove(itemId, timeline)) {
+                removed.addAll(timeline.entries());
+            } else {
+                removed.addAll(timeline.removeBooker(userId));
+            }
+        });
+        onRollback(() -> removed.forEach(this::apply));
+    }
+
+    public Optional<TimelineEntry> findLast(Long itemId, LocalDateTime now) {
+        return timeline(itemId).map(timeline -> timeline.last(now));
+    }
+
+    public Optional<TimelineEntry> findNext(Long itemId, LocalDateTime now) {
+        return timeline(itemId).map(timeline -> timeline.next(now));
+    }
+
+    public Optional<TimelineEntry> findOverlap(Long itemId, Status status, LocalDateTime start, LocalDateTime end) {
+        return timeline(itemId).map(timeline -> timeline.overlap(status, start, end));
+    }
+
+    private Optional<ItemTimeline> timeline(Long itemId) {
+        return Optional.ofNullable(timelines.get(itemId));
+    }
+
+    private TimelineEntry apply(TimelineEntry entry) {
+        ItemTimeline timeline = timelines.computeIfAbsent(entry.getItemId(),
+                itemId -> new ItemTimeline(entry.getItemOwnerId()));
+        return timeline.put(entry);
+    }
+}
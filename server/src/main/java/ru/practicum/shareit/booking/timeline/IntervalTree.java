@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking.timeline;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap ordered by (start, bookingId) where every node also keeps the entry with the latest end in its subtree.
+ * Inserts, removals and all lookups are O(log n) expected.
+ */
+class IntervalTree {
+    private Node root;
+    private int size;
+
+    void insert(TimelineEntry entry) {
+        root = insert(root, new Node(entry));
+        size++;
+    }
+
+    void remove(TimelineEntry entry) {
+        root = remove(root, entry);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Entry that started strictly before {@code bound} and ends the latest.
+     */
+    TimelineEntry latestEndingStartedBefore(LocalDateTime bound) {
+        TimelineEntry best = null;
+        Node node = root;
+        while (node != null) {
+            if (node.entry.getStart().isBefore(bound)) {
+                best = later(best, node.left == null ? null : node.left.maxEnd);
+                best = later(best, node.entry);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Entry with the earliest start strictly after {@code bound}.
+     */
+    TimelineEntry firstStartingAfter(LocalDateTime bound) {
+        TimelineEntry best = null;
+        Node node = root;
+        while (node != null) {
+            if (node.entry.getStart().isAfter(bound)) {
+                best = node.entry;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Some entry intersecting the half-open interval [start, end), or null.
+     */
+    TimelineEntry findOverlap(LocalDateTime start, LocalDateTime end) {
+        TimelineEntry candidate = latestEndingStartedBefore(end);
+        return candidate != null && candidate.getEnd().isAfter(start) ? candidate : null;
+    }
+
+    private Node insert(Node node, Node created) {
+        if (node == null) {
+            return created;
+        }
+        if (TimelineEntry.BY_START.compare(created.entry, node.entry) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, TimelineEntry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = TimelineEntry.BY_START.compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = remove(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, entry);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static TimelineEntry later(TimelineEntry current, TimelineEntry candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        if (current == null || TimelineEntry.BY_END.compare(candidate, current) > 0) {
+            return candidate;
+        }
+        return current;
+    }
+
+    private static class Node {
+        private final TimelineEntry entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private TimelineEntry maxEnd;
+
+        Node(TimelineEntry entry) {
+            this.entry = entry;
+            this.maxEnd = entry;
+        }
+
+        void update() {
+            maxEnd = entry;
+            if (left != null) {
+                maxEnd = later(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = later(maxEnd, right.maxEnd);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ItemTimeline {
+    @Getter
+    private final Long ownerId;
+    private final Map<Long, TimelineEntry> entries = new HashMap<>();
+    private final Map<Status, IntervalTree> trees = new EnumMap<>(Status.class);
+
+    ItemTimeline(Long ownerId) {
+        this.ownerId = ownerId;
+        BookingTimelineIndex.TRACKED_STATUSES.forEach(status -> trees.put(status, new IntervalTree()));
+    }
+
+    synchronized TimelineEntry put(TimelineEntry entry) {
+        TimelineEntry previous = remove(entry.getBookingId());
+        IntervalTree tree = trees.get(entry.getStatus());
+        if (tree != null) {
+            tree.insert(entry);
+            entries.put(entry.getBookingId(), entry);
+        }
+        return previous;
+    }
+
+    synchronized TimelineEntry remove(Long bookingId) {
+        TimelineEntry previous = entries.remove(bookingId);
+        if (previous != null) {
+            trees.get(previous.getStatus()).remove(previous);
+        }
+        return previous;
+    }
+
+    synchronized List<TimelineEntry> removeBooker(Long bookerId) {
+        List<TimelineEntry> removed = new ArrayList<>();
+        for (TimelineEntry entry : new ArrayList<>(entries.values())) {
+            if (entry.getBookerId().equals(bookerId)) {
+                removed.add(remove(entry.getBookingId()));
+            }
+        }
+        return removed;
+    }
+
+    synchronized List<TimelineEntry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    synchronized TimelineEntry last(LocalDateTime now) {
+        return trees.get(Status.APPROVED).latestEndingStartedBefore(now);
+    }
+
+    synchronized TimelineEntry next(LocalDateTime now) {
+        return trees.get(Status.APPROVED).firstStartingAfter(now);
+    }
+
+    synchronized TimelineEntry overlap(Status status, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.get(status);
+        return tree == null ? null : tree.findOverlap(start, end);
+    }
+}
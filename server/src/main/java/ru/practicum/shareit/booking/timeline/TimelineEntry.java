@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class TimelineEntry {
+    static final Comparator<TimelineEntry> BY_START = Comparator.comparing(TimelineEntry::getStart)
+            .thenComparing(TimelineEntry::getBookingId);
+
+    static final Comparator<TimelineEntry> BY_END = Comparator.comparing(TimelineEntry::getEnd)
+            .thenComparing(BY_START);
+
+    private final Long bookingId;
+    private final Long itemId;
+    private final Long itemOwnerId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Status status;
+
+    public static TimelineEntry of(Booking booking) {
+        return new TimelineEntry(booking.getId(),
+                booking.getItem().getId(),
+                booking.getItem().getOwnerId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus());
+    }
+
+    public static TimelineEntry of(BookingChangedEvent event) {
+        return new TimelineEntry(event.getBookingId(),
+                event.getItemId(),
+                event.getItemOwnerId(),
+                event.getBookerId(),
+                event.getStart(),
+                event.getEnd(),
+                event.getStatus());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimelineEntry that = (TimelineEntry) o;
+        return Objects.equals(bookingId, that.bookingId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookingId);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Read-write lock of an in-memory index. Changes made through {@link #change} inside a transaction are undone,
+ * under the same lock, if that transaction rolls back.
+ */
+public class IndexLock {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public <T> T write(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies {@code change} under the write lock and, if the current transaction rolls back, passes what it
+     * returned to {@code undo}, again under the write lock.
+     */
+    public <T> T change(Supplier<T> change, Consumer<T> undo) {
+        T result = write(change);
+        TransactionHooks.onRollback(() -> write(() -> {
+            undo.accept(result);
+            return null;
+        }));
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Callbacks on the outcome of the current transaction, for in-memory state that follows the database.
+ */
+public final class TransactionHooks {
+    private TransactionHooks() {
+    }
+
+    /**
+     * Runs {@code undo} if the current transaction rolls back; does nothing outside a transaction. Undos run
+     * newest first, so several changes of the same entry are unwound back to its state before the transaction.
+     */
+    public static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        UndoLog log = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(UndoLog.class::isInstance)
+                .map(UndoLog.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    UndoLog created = new UndoLog();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        log.undos.push(undo);
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits or rolls back. Returns {@code false}, without
+     * running it, when there is no transaction to wait for.
+     */
+    public static boolean afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+        return true;
+    }
+
+    private static class UndoLog implements TransactionSynchronization {
+        private final Deque<Runnable> undos = new ArrayDeque<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                undos.forEach(Runnable::run);
+            }
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.booking.BookingConflictException;
 import ru.practicum.shareit.exception.booking.BookingCreateException;
 import ru.practicum.shareit.exception.booking.BookingNotFoundException;
+import ru.practicum.shareit.exception.booking.BookingOverlapException;
+import ru.practicum.shareit.exception.booking.IdempotencyKeyReuseException;
 import ru.practicum.shareit.exception.booking.InvalidBookingException;
+import ru.practicum.shareit.exception.booking.InvalidBookingViewException;
+import ru.practicum.shareit.exception.booking.InvalidChangesRequestException;
+import ru.practicum.shareit.exception.booking.InvalidCursorException;
+import ru.practicum.shareit.exception.booking.InvalidIdempotencyKeyException;
 import ru.practicum.shareit.exception.comment.CommentCreateException;
+import ru.practicum.shareit.exception.item.InvalidAvailabilityRequestException;
+import ru.practicum.shareit.exception.item.InvalidSearchRequestException;
 import ru.practicum.shareit.exception.item.ItemNotAvailableException;
 import ru.practicum.shareit.exception.item.ItemNotDescriptionException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
@@ -46,6 +56,20 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка при создании бронирования", e.getMessage());
     }
 
+    @ExceptionHandler({BookingOverlapException.class})
+    @ResponseStatus(HttpStatus.CONFLICT) // 409
+    public ErrorResponse handleBookingOverlapException(final BookingOverlapException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Пересечение бронирований", e.getMessage());
+    }
+
+    @ExceptionHandler({BookingConflictException.class, OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT) // 409
+    public ErrorResponse handleBookingConflictException(final RuntimeException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Конфликт изменения бронирования", e.getMessage());
+    }
+
     @ExceptionHandler({InvalidBookingException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND) // 404
     public ErrorResponse handleInvalidBookingException(final InvalidBookingException e) {
@@ -53,6 +77,41 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка при бронировании", e.getMessage());
     }
 
+    @ExceptionHandler({InvalidChangesRequestException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+    public ErrorResponse handleInvalidChangesRequestException(final InvalidChangesRequestException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Ошибка запроса изменений бронирований", e.getMessage());
+    }
+
+    @ExceptionHandler({InvalidCursorException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+    public ErrorResponse handleInvalidCursorException(final InvalidCursorException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Ошибка пагинации", e.getMessage());
+    }
+
+    @ExceptionHandler({InvalidBookingViewException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+    public ErrorResponse handleInvalidBookingViewException(final InvalidBookingViewException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Ошибка вида списка", e.getMessage());
+    }
+
+    @ExceptionHandler({InvalidIdempotencyKeyException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+    public ErrorResponse handleInvalidIdempotencyKeyException(final InvalidIdempotencyKeyException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Ошибка ключа идемпотентности", e.getMessage());
+    }
+
+    @ExceptionHandler({IdempotencyKeyReuseException.class})
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY) // 422
+    public ErrorResponse handleIdempotencyKeyReuseException(final IdempotencyKeyReuseException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Повторное использование ключа идемпотентности", e.getMessage());
+    }
+
     @ExceptionHandler({IllegalArgumentException.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR) //500
     public ErrorResponse handleUnsupportedStatusException(final IllegalArgumentException e) {
@@ -89,6 +148,20 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка в описании вещи", e.getMessage());
     }
 
+    @ExceptionHandler({InvalidAvailabilityRequestException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+    public ErrorResponse handleInvalidAvailabilityRequestException(final InvalidAvailabilityRequestException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Ошибка запроса доступности вещи", e.getMessage());
+    }
+
+    @ExceptionHandler({InvalidSearchRequestException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+    public ErrorResponse handleInvalidSearchRequestException(final InvalidSearchRequestException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Ошибка запроса поиска вещей", e.getMessage());
+    }
+
     @ExceptionHandler({MissingRequestHeaderException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST) // 404
     public ErrorResponse handleMissingRequestHeaderException(final MissingRequestHeaderException e) {
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(Long bookingId) {
+        super(String.format("Бронирование с id: %s было изменено другим запросом", bookingId));
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class BookingOverlapException extends RuntimeException {
+    public BookingOverlapException(Long itemId) {
+        super(String.format("Вещь с id: %s уже забронирована на выбранное время", itemId));
+    }
+}
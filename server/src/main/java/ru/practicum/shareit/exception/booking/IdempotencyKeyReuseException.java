@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String key) {
+        super(String.format("Ключ идемпотентности %s уже использован для другого запроса", key));
+    }
+}
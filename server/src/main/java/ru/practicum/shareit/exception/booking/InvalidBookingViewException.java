@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class InvalidBookingViewException extends RuntimeException {
+    public InvalidBookingViewException(String view) {
+        super(String.format("Неизвестный вид списка бронирований: %s", view));
+    }
+}
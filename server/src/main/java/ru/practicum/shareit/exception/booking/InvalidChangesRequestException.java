@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class InvalidChangesRequestException extends RuntimeException {
+    public InvalidChangesRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super(String.format("Некорректный курсор: %s", cursor));
+    }
+}
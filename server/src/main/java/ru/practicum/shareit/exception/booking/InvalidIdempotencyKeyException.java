@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.booking;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String key) {
+        super(String.format("Некорректный ключ идемпотентности: %s", key));
+    }
+}
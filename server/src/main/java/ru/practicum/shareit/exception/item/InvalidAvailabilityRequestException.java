@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.item;
+
+public class InvalidAvailabilityRequestException extends RuntimeException {
+    public InvalidAvailabilityRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.item;
+
+public class InvalidSearchRequestException extends RuntimeException {
+    public InvalidSearchRequestException(String message) {
+        super(message);
+    }
+}
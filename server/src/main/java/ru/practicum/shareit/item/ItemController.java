@@ -2,14 +2,17 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.exception.item.ItemNotAvailableException;
 import ru.practicum.shareit.exception.item.ItemNotDescriptionException;
 import ru.practicum.shareit.exception.item.ItemNotNameException;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -64,12 +67,33 @@ public class ItemController {
     @GetMapping(value = "/search")
     public List<ItemDto> getItemsBySearch(@RequestParam(value = "text", defaultValue = "") String text,
                                           @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                          @RequestParam(name = "size", defaultValue = "10", required = false) Integer size) {
-        log.info("Получен запрос к эндпоинту:{} /items/search?text={}", "GET", text);
+                                          @RequestParam(name = "size", defaultValue = "10", required = false) Integer size,
+                                          @RequestParam(name = "sort", defaultValue = "id") String sort,
+                                          @RequestParam(name = "scores", defaultValue = "false") Boolean scores) {
+        log.info("Получен запрос к эндпоинту:{} /items/search?text={}&sort={}", "GET", text, sort);
         if (text.isEmpty()) {
             log.info("Передан пустой запрос");
         }
-        return itemService.getItemsBySearch(text, from, size);
+        return itemService.getItemsBySearch(text, from, size, sort, scores);
+    }
+
+    @GetMapping(value = "/search/suggest")
+    public List<String> getSuggestions(@RequestParam(value = "prefix", defaultValue = "") String prefix,
+                                       @RequestParam(name = "limit", defaultValue = "10") Integer limit) {
+        log.info("Получен запрос к эндпоинту:{} /items/search/suggest?prefix={}", "GET", prefix);
+        return itemService.getSuggestions(prefix, limit);
+    }
+
+    @GetMapping(value = "/free")
+    public List<ItemDto> getFreeItems(@RequestParam(value = "text", defaultValue = "") String text,
+                                      @RequestParam(name = "start")
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                      @RequestParam(name = "end")
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                      @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                      @RequestParam(name = "size", defaultValue = "10", required = false) Integer size) {
+        log.info("Получен запрос к эндпоинту:{} /items/free?start={}&end={}", "GET", start, end);
+        return itemService.getFreeItems(text, start, end, from, size);
     }
 
     @PostMapping(value = "/{itemId}/comment")
@@ -79,4 +103,15 @@ public class ItemController {
         log.info("Получен запрос к эндпоинту:{} {}", String.format("%d/comment", itemId), "POST");
         return itemService.addComment(commentDto, itemId, authorId);
     }
+
+    @GetMapping(value = "/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable(value = "itemId") Long itemId,
+                                               @RequestParam(name = "from")
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(name = "to")
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                               @RequestParam(name = "granularity", defaultValue = "HOUR") String granularity) {
+        log.info("Получен запрос к эндпоинту:{} /items/{}/availability", "GET", itemId);
+        return itemService.getAvailability(itemId, from, to, granularity);
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the item service once an item has been deleted together with its bookings.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ItemDeletedEvent {
+    private final Long itemId;
+}
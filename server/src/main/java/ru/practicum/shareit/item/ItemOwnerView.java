@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item;
+
+public interface ItemOwnerView {
+    Long getId();
+
+    Long getOwnerId();
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item;
+
+public interface ItemRankView {
+    Long getId();
+
+    Double getRank();
+}
@@ -5,7 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.enums.Status;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,9 +17,52 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByRequestId(Long requestId);
 
     @Query(" select i from Item i " +
-            "where lower(i.name) like lower(concat('%', :search, '%')) " +
-            " or lower(i.description) like lower(concat('%', :search, '%')) " +
+            "where (lower(i.name) like lower(concat('%', :search, '%')) " +
+            " or lower(i.description) like lower(concat('%', :search, '%'))) " +
             " and i.available = true")
-
     List<Item> getItemsBySearch(@Param("search")String text, Pageable pageable);
+
+    @Query(value = "select i.item_id from items i " +
+            "where i.item_available = true " +
+            " and (lower(i.item_name) like concat('%', :search, '%') " +
+            "  or lower(i.item_description) like concat('%', :search, '%')) " +
+            "order by i.item_id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Long> findIdsBySearch(@Param("search") String text, @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query(value = "select i.item_id from items i " +
+            "where i.item_available = true " +
+            " and i.item_search @@ (to_tsquery('russian', :query) || to_tsquery('simple', :query)) " +
+            "order by i.item_id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Long> findIdsByFullText(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query(value = "select r.id as id, r.rank as rank from (" +
+            " select i.item_id as id, ts_rank(i.item_search, q.query)::float8 as rank " +
+            " from items i, (select to_tsquery('russian', :query) || to_tsquery('simple', :query) as query) q " +
+            " where i.item_available = true and i.item_search @@ q.query) r " +
+            "order by r.rank desc, r.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<ItemRankView> findRankedByFullText(@Param("query") String query,
+                                            @Param("limit") int limit,
+                                            @Param("offset") int offset);
+
+    @Query("select i.id as id, i.ownerId as ownerId from Item i where i.available = true")
+    List<ItemOwnerView> findAvailableItemOwners();
+
+    @Query("select i.id as id, i.ownerId as ownerId, i.name as name, i.description as description " +
+            "from Item i where i.available = true order by i.id")
+    List<ItemTextView> findAvailableItemTexts();
+
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            " and (:search = '' or lower(i.name) like lower(concat('%', :search, '%')) " +
+            "  or lower(i.description) like lower(concat('%', :search, '%'))) " +
+            " and not exists (select b from Booking b where b.item = i and b.status = :status " +
+            "  and b.start < :end and b.end > :start)")
+    List<Item> findFree(@Param("search") String text,
+                        @Param("status") Status status,
+                        @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end,
+                        Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the item service whenever an item is created or updated.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ItemSavedEvent {
+    private final Item item;
+}
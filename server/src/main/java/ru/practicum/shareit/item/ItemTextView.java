@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+public interface ItemTextView {
+    Long getId();
+
+    Long getOwnerId();
+
+    String getName();
+
+    String getDescription();
+}
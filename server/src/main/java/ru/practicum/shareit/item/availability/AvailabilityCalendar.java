@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.booking.BookingPeriodView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Busy time of one item as merged runs: {@code runs[2k]} is the start and {@code runs[2k + 1]} the end
+ * (epoch seconds, end exclusive) of the k-th busy run.
+ */
+public class AvailabilityCalendar {
+    private final long[] runs;
+
+    private AvailabilityCalendar(long[] runs) {
+        this.runs = runs;
+    }
+
+    public static AvailabilityCalendar of(List<BookingPeriodView> periods) {
+        long[] runs = new long[periods.size() * 2];
+        int length = 0;
+        for (BookingPeriodView period : periods) {
+            long start = toSeconds(period.getStart());
+            long end = toSeconds(period.getEnd()) + (period.getEnd().getNano() > 0 ? 1 : 0);
+            if (length > 0 && start <= runs[length - 1]) {
+                runs[length - 1] = Math.max(runs[length - 1], end);
+            } else {
+                runs[length++] = start;
+                runs[length++] = end;
+            }
+        }
+        return new AvailabilityCalendar(Arrays.copyOf(runs, length));
+    }
+
+    /**
+     * Bit i is set when slot [from + i * granularity, from + (i + 1) * granularity) intersects a busy run.
+     */
+    public BitSet busySlots(LocalDateTime from, int slots, Granularity granularity) {
+        BitSet busy = new BitSet(slots);
+        long origin = toSeconds(from);
+        long limit = origin + slots * granularity.getSeconds();
+        int run = firstRunEndingAfter(origin);
+        for (; run < runs.length && runs[run] < limit; run += 2) {
+            long start = Math.max(runs[run], origin);
+            long end = Math.min(runs[run + 1], limit);
+            int firstSlot = (int) ((start - origin) / granularity.getSeconds());
+            int lastSlot = (int) ((end - origin - 1) / granularity.getSeconds());
+            busy.set(firstSlot, lastSlot + 1);
+        }
+        return busy;
+    }
+
+    private int firstRunEndingAfter(long second) {
+        int low = 0;
+        int high = runs.length / 2;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runs[middle * 2 + 1] <= second) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low * 2;
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
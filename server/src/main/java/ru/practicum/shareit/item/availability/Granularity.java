@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.availability;
+
+import java.util.Optional;
+
+public enum Granularity {
+    MINUTE(60),
+    HOUR(60 * 60),
+    DAY(24 * 60 * 60);
+
+    private final long seconds;
+
+    Granularity(long seconds) {
+        this.seconds = seconds;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    public static Optional<Granularity> from(String value) {
+        for (Granularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return Optional.of(granularity);
+            }
+        }
+        return Optional.empty();
+    }
+}
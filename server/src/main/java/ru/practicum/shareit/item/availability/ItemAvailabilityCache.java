@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Calendars of APPROVED bookings of the {@code shareit.availability.cache-size} most recently read items. A
+ * calendar is loaded outside the cache lock, so a slow load holds up no other item, and is only kept if nothing
+ * was invalidated while it was loading.
+ */
+@Component
+public class ItemAvailabilityCache {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, AvailabilityCalendar> calendars;
+    private long invalidations;
+
+    public ItemAvailabilityCache(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.cache-size:10000}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша доступности должен быть положительным: " + maxSize);
+        }
+        this.bookingRepository = bookingRepository;
+        this.calendars = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AvailabilityCalendar> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public AvailabilityCalendar get(Long itemId) {
+        long seen;
+        synchronized (calendars) {
+            AvailabilityCalendar cached = calendars.get(itemId);
+            if (cached != null) {
+                return cached;
+            }
+            seen = invalidations;
+        }
+        AvailabilityCalendar loaded = AvailabilityCalendar.of(
+                bookingRepository.findPeriodsByItemIdAndStatus(itemId, Status.APPROVED));
+        synchronized (calendars) {
+            if (invalidations == seen) {
+                calendars.putIfAbsent(itemId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    /**
+     * The bookings of a deleted user may be on any item.
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        clear();
+        TransactionHooks.afterCompletion(this::clear);
+    }
+
+    public void invalidate(Long itemId) {
+        remove(itemId);
+        TransactionHooks.afterCompletion(() -> remove(itemId));
+    }
+
+    private void remove(Long itemId) {
+        synchronized (calendars) {
+            invalidations++;
+            calendars.remove(itemId);
+        }
+    }
+
+    private void clear() {
+        synchronized (calendars) {
+            invalidations++;
+            calendars.clear();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+import ru.practicum.shareit.common.IndexLock;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.item.ItemOwnerView;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Available items and, per time bucket, the ids of items that have an APPROVED booking touching that bucket.
+ * A window is answered by subtracting the buckets it fully covers and checking the bookings of the items
+ * found in its two edge buckets. Only buckets that hold a booking are visited, so the cost of a window does not
+ * grow with its length. A booking spanning more than {@link #MAX_BOOKING_BUCKETS} buckets is not spread over
+ * them; its item is checked against every window like the items of the edge buckets. Item ids beyond the
+ * {@code int} range switch the index off, and searches fall back to the database. Changes made inside a
+ * transaction are undone if that transaction rolls back.
+ */
+@Component
+@Slf4j
+public class ItemAvailabilityIndex {
+    static final int MAX_BOOKING_BUCKETS = 400;
+    private static final BitSet NONE = new BitSet();
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final long bucketSeconds;
+
+    private final IndexLock lock = new IndexLock();
+    private final BitSet available = new BitSet();
+    private final Map<Long, Long> availableOwners = new HashMap<>();
+    private final Map<Long, Map<Long, TimelineEntry>> approved = new HashMap<>();
+    private final NavigableMap<Long, BitSet> busy = new TreeMap<>();
+    private final BitSet spanning = new BitSet();
+    private volatile boolean ready;
+    private volatile boolean overflowed;
+
+    public ItemAvailabilityIndex(ItemRepository itemRepository,
+                                 BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.bucket-hours:24}") int bucketHours) {
+        if (bucketHours <= 0) {
+            throw new IllegalArgumentException("Размер интервала индекса должен быть положительным: " + bucketHours);
+        }
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.bucketSeconds = bucketHours * 3600L;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        List<ItemOwnerView> items = itemRepository.findAvailableItemOwners();
+        List<TimelineEntry> entries = bookingRepository.findTimelineEntries(Set.of(Status.APPROVED));
+        lock.write(() -> {
+            available.clear();
+            availableOwners.clear();
+            approved.clear();
+            busy.clear();
+            spanning.clear();
+            items.forEach(item -> applyAvailability(item.getId(), item.getOwnerId(), true));
+            entries.forEach(this::applyBooking);
+            return null;
+        });
+        ready = true;
+        log.info("Индекс доступности построен: {} доступных вещей, {} бронирований", items.size(), entries.size());
+    }
+
+    public boolean isReady() {
+        return ready && !overflowed;
+    }
+
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        putItem(event.getItem());
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        removeItem(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeUser(event.getUserId());
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        putBooking(TimelineEntry.of(event));
+    }
+
+    public void putItem(Item item) {
+        boolean isAvailable = Boolean.TRUE.equals(item.getAvailable());
+        lock.change(() -> applyAvailability(item.getId(), item.getOwnerId(), isAvailable),
+                previousOwner -> applyAvailability(item.getId(), previousOwner, previousOwner != null));
+    }
+
+    public void putBooking(Booking booking) {
+        putBooking(TimelineEntry.of(booking));
+    }
+
+    public void putBooking(TimelineEntry entry) {
+        lock.change(() -> applyBooking(entry), previous -> {
+            if (previous == null) {
+                removeBooking(entry.getItemId(), entry.getBookingId());
+            } else {
+                applyBooking(previous);
+            }
+        });
+    }
+
+    public void removeItem(Long itemId) {
+        List<TimelineEntry> removed = new ArrayList<>();
+        lock.change(() -> {
+            removed.addAll(removeBookings(itemId, entry -> true));
+            return applyAvailability(itemId, null, false);
+        }, previousOwner -> {
+            applyAvailability(itemId, previousOwner, previousOwner != null);
+            removed.forEach(this::applyBooking);
+        });
+    }
+
+    public void removeUser(Long userId) {
+        Map<Long, Long> removedItems = new HashMap<>();
+        List<TimelineEntry> removedBookings = new ArrayList<>();
+        lock.change(() -> {
+            availableOwners.forEach((itemId, ownerId) -> {
+                if (ownerId.equals(userId)) {
+                    removedItems.put(itemId, ownerId);
+                }
+            });
+            removedItems.keySet().forEach(itemId -> applyAvailability(itemId, null, false));
+            for (Long itemId : new ArrayList<>(approved.keySet())) {
+                removedBookings.addAll(removeBookings(itemId, entry ->
+                        entry.getItemOwnerId().equals(userId) || entry.getBookerId().equals(userId)));
+            }
+            return null;
+        }, nothing -> {
+            removedItems.forEach((itemId, ownerId) -> applyAvailability(itemId, ownerId, true));
+            removedBookings.forEach(this::applyBooking);
+        });
+    }
+
+    /**
+     * Ids (ascending) of available items with no APPROVED booking overlapping [start, end), restricted to
+     * {@code candidates} when it is not null, skipping the first {@code from} matches.
+     */
+    public List<Long> findFree(Collection<Long> candidates, LocalDateTime start, LocalDateTime end,
+                               int from, int size) {
+        long firstBucket = bucket(floorSeconds(start));
+        long lastBucket = bucket(ceilSeconds(end) - 1);
+        return lock.read(() -> {
+            BitSet free = (BitSet) available.clone();
+            if (candidates != null) {
+                BitSet restriction = new BitSet();
+                candidates.stream()
+                        .filter(id -> id <= Integer.MAX_VALUE)
+                        .forEach(id -> restriction.set(id.intValue()));
+                free.and(restriction);
+            }
+            if (lastBucket - firstBucket > 1) {
+                for (BitSet items : busy.subMap(firstBucket + 1, lastBucket).values()) {
+                    if (free.isEmpty()) {
+                        break;
+                    }
+                    free.andNot(items);
+                }
+            }
+            BitSet edges = (BitSet) spanning.clone();
+            edges.or(busy.getOrDefault(firstBucket, NONE));
+            edges.or(busy.getOrDefault(lastBucket, NONE));
+            edges.and(free);
+            for (int id = edges.nextSetBit(0); id >= 0; id = edges.nextSetBit(id + 1)) {
+                if (overlaps((long) id, start, end)) {
+                    free.clear(id);
+                }
+            }
+
+            List<Long> page = new ArrayList<>(size);
+            int skipped = 0;
+            for (int id = free.nextSetBit(0); id >= 0 && page.size() < size; id = free.nextSetBit(id + 1)) {
+                if (skipped++ >= from) {
+                    page.add((long) id);
+                }
+            }
+            return page;
+        });
+    }
+
+    private boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return approved.getOrDefault(itemId, Map.of()).values().stream()
+                .anyMatch(entry -> entry.getStart().isBefore(end) && entry.getEnd().isAfter(start));
+    }
+
+    private Long applyAvailability(Long itemId, Long ownerId, boolean isAvailable) {
+        if (!fits(itemId)) {
+            return null;
+        }
+        int bit = itemId.intValue();
+        if (isAvailable) {
+            available.set(bit);
+            return availableOwners.put(itemId, ownerId);
+        }
+        available.clear(bit);
+        return availableOwners.remove(itemId);
+    }
+
+    private TimelineEntry applyBooking(TimelineEntry entry) {
+        TimelineEntry previous = removeBooking(entry.getItemId(), entry.getBookingId());
+        if (entry.getStatus() == Status.APPROVED && fits(entry.getItemId())) {
+            int bit = entry.getItemId().intValue();
+            approved.computeIfAbsent(entry.getItemId(), id -> new HashMap<>()).put(entry.getBookingId(), entry);
+            if (isSpanning(entry)) {
+                spanning.set(bit);
+            } else {
+                forEachBucket(entry, bucket -> busy.computeIfAbsent(bucket, b -> new BitSet()).set(bit));
+            }
+        }
+        return previous;
+    }
+
+    private TimelineEntry removeBooking(Long itemId, Long bookingId) {
+        List<TimelineEntry> removed = removeBookings(itemId, entry -> entry.getBookingId().equals(bookingId));
+        return removed.isEmpty() ? null : removed.get(0);
+    }
+
+    private List<TimelineEntry> removeBookings(Long itemId, Predicate<TimelineEntry> filter) {
+        Map<Long, TimelineEntry> bookings = approved.get(itemId);
+        if (bookings == null) {
+            return List.of();
+        }
+        List<TimelineEntry> removed = new ArrayList<>();
+        bookings.values().removeIf(entry -> filter.test(entry) && removed.add(entry));
+        if (bookings.isEmpty()) {
+            approved.remove(itemId);
+        }
+        int bit = itemId.intValue();
+        if (bookings.values().stream().noneMatch(this::isSpanning)) {
+            spanning.clear(bit);
+        }
+        removed.stream()
+                .filter(entry -> !isSpanning(entry))
+                .forEach(entry -> forEachBucket(entry, bucket -> {
+                    boolean stillBusy = bookings.values().stream()
+                            .anyMatch(other -> !isSpanning(other)
+                                    && bucket(floorSeconds(other.getStart())) <= bucket
+                                    && bucket(ceilSeconds(other.getEnd()) - 1) >= bucket);
+                    BitSet items = busy.get(bucket);
+                    if (!stillBusy && items != null) {
+                        items.clear(bit);
+                        if (items.isEmpty()) {
+                            busy.remove(bucket);
+                        }
+                    }
+                }));
+        return removed;
+    }
+
+    private boolean isSpanning(TimelineEntry entry) {
+        long buckets = bucket(ceilSeconds(entry.getEnd()) - 1) - bucket(floorSeconds(entry.getStart())) + 1;
+        return buckets > MAX_BOOKING_BUCKETS;
+    }
+
+    private boolean fits(Long itemId) {
+        if (itemId <= Integer.MAX_VALUE) {
+            return true;
+        }
+        if (!overflowed) {
+            overflowed = true;
+            log.warn("Индекс доступности отключён: id вещи {} не помещается в int", itemId);
+        }
+        return false;
+    }
+
+    private void forEachBucket(TimelineEntry entry, LongConsumer action) {
+        long last = bucket(ceilSeconds(entry.getEnd()) - 1);
+        for (long bucket = bucket(floorSeconds(entry.getStart())); bucket <= last; bucket++) {
+            action.accept(bucket);
+        }
+    }
+
+    private long bucket(long epochSecond) {
+        return Math.floorDiv(epochSecond, bucketSeconds);
+    }
+
+    private static long floorSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long ceilSeconds(LocalDateTime dateTime) {
+        return floorSeconds(dateTime) + (dateTime.getNano() > 0 ? 1 : 0);
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "comments")
+@NamedEntityGraph(name = Comment.AUTHOR, attributeNodes = @NamedAttributeNode("author"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,6 +18,7 @@ import java.util.Objects;
 @Setter
 @ToString
 public class Comment {
+    public static final String AUTHOR = "Comment.author";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,12 +28,14 @@ public class Comment {
     @Column(name = "comment_text")
     private String text;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
+    @ToString.Exclude
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
+    @ToString.Exclude
     private User author;
 
     private LocalDateTime created;
@@ -1,10 +1,19 @@
 package ru.practicum.shareit.item.comment;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(Comment.AUTHOR)
     List<Comment> findAllByItem_Id(Long itemId, Sort sort);
+
+    @Query("select c from Comment c join fetch c.author join fetch c.item " +
+            "where c.item.id in :itemIds order by c.created desc")
+    List<Comment> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
@@ -22,6 +23,8 @@ public class ItemDto {
     private List<CommentDto> comments;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
 
     @Override
     public boolean equals(Object o) {
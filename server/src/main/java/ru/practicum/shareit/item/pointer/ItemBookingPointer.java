@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Copy of the last or next APPROVED booking of an item, kept up to date by {@link ItemBookingPointers}.
+ */
+@Entity
+@Table(name = "item_booking_pointers")
+@IdClass(ItemBookingPointer.Key.class)
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+public class ItemBookingPointer {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pointer_kind")
+    private PointerKind kind;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long itemId;
+        private PointerKind kind;
+    }
+}
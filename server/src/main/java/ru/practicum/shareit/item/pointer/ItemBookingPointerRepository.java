@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.pointer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingPointerRepository extends JpaRepository<ItemBookingPointer, ItemBookingPointer.Key> {
+    List<ItemBookingPointer> findAllByItemIdIn(Collection<Long> itemIds);
+
+    /**
+     * Row-locks the items (in id order) so that concurrent refreshes of the same item's pointers serialize.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :itemIds order by i.id")
+    List<Item> lockItems(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select distinct p.itemId from ItemBookingPointer p where p.bookerId = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
+}
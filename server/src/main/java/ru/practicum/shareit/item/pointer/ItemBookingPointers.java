@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingView;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code item_booking_pointers}: the last and next APPROVED booking of every item, so that item
+ * reads do not have to query bookings. Pointers are refreshed when a booking changes status and rolled
+ * forward by {@link ru.practicum.shareit.booking.schedule.BookingTransitionScheduler} once a "next" booking
+ * has started.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingPointers {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingPointerRepository pointerRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingTimelineIndex bookingTimelineIndex;
+
+    /**
+     * Stored pointers of the given items. Items whose "next" pointer has already started are recomputed
+     * instead, so a read between two roll runs is never stale.
+     */
+    public Map<Long, List<ItemBookingPointer>> find(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, List<ItemBookingPointer>> pointers = pointerRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(ItemBookingPointer::getItemId));
+        List<Long> stale = pointers.values().stream()
+                .flatMap(List::stream)
+                .filter(pointer -> pointer.getKind() == PointerKind.NEXT && !pointer.getStart().isAfter(now))
+                .map(ItemBookingPointer::getItemId)
+                .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            stale.forEach(pointers::remove);
+            pointers.putAll(compute(stale, now).stream()
+                    .collect(Collectors.groupingBy(ItemBookingPointer::getItemId)));
+        }
+        return pointers;
+    }
+
+    public List<Long> findItemIdsBookedBy(Long bookerId) {
+        return pointerRepository.findItemIdsByBookerId(bookerId);
+    }
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        pointerRepository.lockItems(itemIds);
+        Map<ItemBookingPointer.Key, ItemBookingPointer> current = pointerRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingPointers::key, Function.identity()));
+        List<ItemBookingPointer> changed = new ArrayList<>();
+        for (ItemBookingPointer pointer : compute(itemIds, LocalDateTime.now())) {
+            ItemBookingPointer existing = current.remove(key(pointer));
+            if (existing == null) {
+                changed.add(pointer);
+            } else if (!existing.getBookingId().equals(pointer.getBookingId())) {
+                existing.setBookingId(pointer.getBookingId());
+                existing.setBookerId(pointer.getBookerId());
+                existing.setStart(pointer.getStart());
+                existing.setEnd(pointer.getEnd());
+                changed.add(existing);
+            }
+        }
+        pointerRepository.saveAll(changed);
+        pointerRepository.deleteAll(current.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> itemIds = bookingRepository.findItemIdsByStatus(Status.APPROVED);
+        forEachBatch(itemIds);
+        log.info("Заполнены последние и следующие бронирования {} вещей", itemIds.size());
+    }
+
+    private void forEachBatch(List<Long> itemIds) {
+        for (int from = 0; from < itemIds.size(); from += BATCH_SIZE) {
+            refresh(itemIds.subList(from, Math.min(from + BATCH_SIZE, itemIds.size())));
+        }
+    }
+
+    private List<ItemBookingPointer> compute(Collection<Long> itemIds, LocalDateTime now) {
+        List<ItemBookingPointer> pointers = new ArrayList<>();
+        if (bookingTimelineIndex.isReady()) {
+            for (Long itemId : itemIds) {
+                bookingTimelineIndex.findLast(itemId, now)
+                        .ifPresent(entry -> pointers.add(pointer(entry, PointerKind.LAST)));
+                bookingTimelineIndex.findNext(itemId, now)
+                        .ifPresent(entry -> pointers.add(pointer(entry, PointerKind.NEXT)));
+            }
+            return pointers;
+        }
+        for (ItemBookingView view : bookingRepository.findLastAndNextApproved(itemIds, now)) {
+            pointers.add(ItemBookingPointer.builder()
+                    .itemId(view.getItemId())
+                    .kind(view.getStart().isBefore(now) ? PointerKind.LAST : PointerKind.NEXT)
+                    .bookingId(view.getId())
+                    .bookerId(view.getBookerId())
+                    .start(view.getStart())
+                    .end(view.getEnd())
+                    .build());
+        }
+        return pointers;
+    }
+
+    private static ItemBookingPointer pointer(TimelineEntry entry, PointerKind kind) {
+        return ItemBookingPointer.builder()
+                .itemId(entry.getItemId())
+                .kind(kind)
+                .bookingId(entry.getBookingId())
+                .bookerId(entry.getBookerId())
+                .start(entry.getStart())
+                .end(entry.getEnd())
+                .build();
+    }
+
+    private static ItemBookingPointer.Key key(ItemBookingPointer pointer) {
+        return new ItemBookingPointer.Key(pointer.getItemId(), pointer.getKind());
+    }
+}
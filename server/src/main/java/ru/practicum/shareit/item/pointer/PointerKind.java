@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.pointer;
+
+public enum PointerKind {
+    LAST,
+    NEXT
+}
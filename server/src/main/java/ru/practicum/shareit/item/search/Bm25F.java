@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * BM25F arithmetic shared by the in-memory backends: term frequencies of the name weigh {@link #NAME_BOOST}
+ * times those of the description, and both are normalized by the average length of their field.
+ */
+final class Bm25F {
+    static final double NAME_BOOST = 3.0;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private Bm25F() {
+    }
+
+    /**
+     * Score of a term found {@code nameFrequency} and {@code descriptionFrequency} times in an item, when
+     * {@code frequencyInItems} of the {@code count} indexed items contain it.
+     */
+    static double score(int nameFrequency, int nameLength, double averageName,
+                        int descriptionFrequency, int descriptionLength, double averageDescription,
+                        int count, int frequencyInItems) {
+        double frequency = NAME_BOOST * normalized(nameFrequency, nameLength, averageName)
+                + normalized(descriptionFrequency, descriptionLength, averageDescription);
+        double idf = Math.log(1 + (count - frequencyInItems + 0.5) / (frequencyInItems + 0.5));
+        return idf * frequency / (K1 + frequency);
+    }
+
+    private static double normalized(int frequency, int length, double averageLength) {
+        return frequency == 0 ? 0 : frequency / (1 - B + B * length / averageLength);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.IndexLock;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.ItemTextView;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocomplete over the names of available items, kept in a {@link NameTrie} keyed by the name normalized like
+ * {@link ItemTokenizer} does, with runs of spaces collapsed. Names shared by more items come first. Changes
+ * made inside a transaction are undone if that transaction rolls back.
+ */
+@Component
+@Slf4j
+public class ItemNameSuggester {
+    private final ItemRepository itemRepository;
+
+    private final IndexLock lock = new IndexLock();
+    private NameTrie trie = new NameTrie();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public ItemNameSuggester(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ItemTextView> items = itemRepository.findAvailableItemTexts();
+        lock.write(() -> {
+            trie = new NameTrie();
+            entries.clear();
+            items.forEach(item -> apply(item.getId(), Entry.of(item.getOwnerId(), item.getName())));
+            return null;
+        });
+        log.info("Подсказки названий вещей построены: {} вещей", entries.size());
+    }
+
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        put(event.getItem());
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        remove(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeOwner(event.getUserId());
+    }
+
+    public void put(Item item) {
+        Entry entry = Boolean.TRUE.equals(item.getAvailable()) ? Entry.of(item.getOwnerId(), item.getName()) : null;
+        lock.change(() -> apply(item.getId(), entry), previous -> apply(item.getId(), previous));
+    }
+
+    public void remove(Long itemId) {
+        lock.change(() -> apply(itemId, null), previous -> apply(itemId, previous));
+    }
+
+    public void removeOwner(Long ownerId) {
+        Map<Long, Entry> removed = new HashMap<>();
+        lock.change(() -> {
+            entries.forEach((itemId, entry) -> {
+                if (entry.ownerId.equals(ownerId)) {
+                    removed.put(itemId, entry);
+                }
+            });
+            removed.keySet().forEach(itemId -> apply(itemId, null));
+            return null;
+        }, nothing -> removed.forEach(this::apply));
+    }
+
+    /**
+     * Up to {@code limit} distinct names of available items starting with {@code prefix}.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = key(prefix).stripLeading();
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return lock.read(() -> trie.top(key, limit));
+    }
+
+    private Entry apply(Long itemId, Entry entry) {
+        Entry previous = entry == null ? entries.remove(itemId) : entries.put(itemId, entry);
+        if (previous != null) {
+            trie.remove(previous.key);
+        }
+        if (entry != null) {
+            trie.add(entry.key, entry.name);
+        }
+        return previous;
+    }
+
+    private static String key(String name) {
+        return ItemTokenizer.normalize(name).replaceAll("\\s+", " ");
+    }
+
+    private static class Entry {
+        private final Long ownerId;
+        private final String key;
+        private final String name;
+
+        Entry(Long ownerId, String key, String name) {
+            this.ownerId = ownerId;
+            this.key = key;
+            this.name = name;
+        }
+
+        /**
+         * Entry of an item with a name, or {@code null} for a blank one, which is never suggested.
+         */
+        static Entry of(Long ownerId, String name) {
+            if (name == null || name.isBlank()) {
+                return null;
+            }
+            return new Entry(ownerId, key(name).strip(), name.strip());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Finds available items by text for {@code GET /items/search}; {@code shareit.item.search.backend} selects the
+ * implementation. Backends that keep their own state follow item writes by listening to the item and user
+ * events.
+ */
+public interface ItemSearchBackend {
+    /**
+     * Ids (ascending) of the matching available items, skipping the first {@code from} matches.
+     */
+    List<Long> search(String text, int from, int size);
+
+    /**
+     * Ids (ascending) of all matching available items, to narrow other searches down to them.
+     */
+    default List<Long> searchAll(String text) {
+        return search(text, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The same matches, most relevant first, with their scores. Backends without a relevance model keep the
+     * order of {@link #search} and report no scores.
+     */
+    default List<ItemSearchHit> searchByRelevance(String text, int from, int size) {
+        return search(text, from, size).stream()
+                .map(id -> new ItemSearchHit(id, null))
+                .collect(Collectors.toList());
+    }
+}
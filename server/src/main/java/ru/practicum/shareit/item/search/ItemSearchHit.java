@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Id of a matching item and its relevance score, or {@code null} when the backend does not score hits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ItemSearchHit {
+    private final Long itemId;
+    private final Double score;
+}
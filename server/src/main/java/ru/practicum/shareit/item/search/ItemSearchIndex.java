@@ -0,0 +1,255 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.IndexLock;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.ItemTextView;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the names and descriptions of available items: every word from
+ * {@link ItemTokenizer} maps to the ascending ids of the items that contain it. A query matches the items in
+ * which every query word starts some word of the name or description, so it is only used when
+ * {@code shareit.item.search.backend=memory} asks for these semantics. Unavailable items are not indexed.
+ * Changes made inside a transaction are undone if that transaction rolls back. Until the index is built,
+ * searches fall back to a substring scan.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.backend", havingValue = "memory")
+@Slf4j
+public class ItemSearchIndex implements ItemSearchBackend {
+    private final ItemRepository itemRepository;
+
+    private final IndexLock lock = new IndexLock();
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long nameLengths;
+    private long descriptionLengths;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        List<ItemTextView> items = itemRepository.findAvailableItemTexts();
+        lock.write(() -> {
+            postings.clear();
+            documents.clear();
+            nameLengths = 0;
+            descriptionLengths = 0;
+            items.forEach(item -> apply(item.getId(),
+                    Document.of(item.getOwnerId(), item.getName(), item.getDescription())));
+            return null;
+        });
+        ready = true;
+        log.info("Поисковый индекс вещей построен: {} вещей, {} слов", items.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        put(event.getItem());
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        remove(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeOwner(event.getUserId());
+    }
+
+    public void put(Item item) {
+        Document document = Boolean.TRUE.equals(item.getAvailable())
+                ? Document.of(item.getOwnerId(), item.getName(), item.getDescription())
+                : null;
+        lock.change(() -> apply(item.getId(), document), previous -> apply(item.getId(), previous));
+    }
+
+    public void remove(Long itemId) {
+        lock.change(() -> apply(itemId, null), previous -> apply(itemId, previous));
+    }
+
+    public void removeOwner(Long ownerId) {
+        Map<Long, Document> removed = new HashMap<>();
+        lock.change(() -> {
+            documents.forEach((itemId, document) -> {
+                if (document.ownerId.equals(ownerId)) {
+                    removed.put(itemId, document);
+                }
+            });
+            removed.keySet().forEach(itemId -> apply(itemId, null));
+            return null;
+        }, nothing -> removed.forEach(this::apply));
+    }
+
+    /**
+     * Ids (ascending) of the available items matching {@code text}, skipping the first {@code from} matches.
+     */
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        if (!ready) {
+            return itemRepository.findIdsBySearch(text.toLowerCase(), size, from);
+        }
+        List<String> words = words(text);
+        long[] matches = lock.read(() -> matches(words));
+        List<Long> page = new ArrayList<>(Math.max(0, Math.min(size, matches.length - from)));
+        for (int i = from; i < matches.length && page.size() < size; i++) {
+            page.add(matches[i]);
+        }
+        return page;
+    }
+
+    /**
+     * The same matches ranked by {@link Bm25F}: each query word scores the best item word it starts. Only the
+     * best {@code from + size} hits are kept, see {@link TopHits}.
+     */
+    @Override
+    public List<ItemSearchHit> searchByRelevance(String text, int from, int size) {
+        if (!ready) {
+            return ItemSearchBackend.super.searchByRelevance(text, from, size);
+        }
+        List<String> words = words(text);
+        TopHits best = new TopHits(from, size);
+        lock.read(() -> {
+            long[] matches = matches(words);
+            double averageName = documents.isEmpty() ? 0 : (double) nameLengths / documents.size();
+            double averageDescription = documents.isEmpty() ? 0 : (double) descriptionLengths / documents.size();
+            for (long id : matches) {
+                Document document = documents.get(id);
+                double score = 0;
+                for (String word : words) {
+                    score += document.score(word, postings, documents.size(), averageName, averageDescription);
+                }
+                best.add(id, score);
+            }
+            return null;
+        });
+        return best.page();
+    }
+
+    private static List<String> words(String text) {
+        return new ArrayList<>(new LinkedHashSet<>(ItemTokenizer.tokenize(text)));
+    }
+
+    /**
+     * Ascending ids of the items in which every word starts some indexed word. Called under the read lock.
+     */
+    private long[] matches(List<String> words) {
+        long[] matches = new long[0];
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            SortedMap<String, PostingList> terms = postings.subMap(word, word + Character.MAX_VALUE);
+            long[] ids = terms.size() == 1
+                    ? terms.values().iterator().next().toArray()
+                    : PostingList.union(terms.values());
+            matches = i == 0 ? ids : PostingList.intersect(matches, ids);
+            if (matches.length == 0) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Replaces the indexed words of the item with those of {@code document}, or drops the item when it is
+     * {@code null}, and returns what was indexed before.
+     */
+    private Document apply(Long itemId, Document document) {
+        Document previous = document == null ? documents.remove(itemId) : documents.put(itemId, document);
+        if (previous != null) {
+            nameLengths -= previous.nameLength;
+            descriptionLengths -= previous.descriptionLength;
+            for (String term : previous.terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    list.remove(itemId);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+        if (document != null) {
+            nameLengths += document.nameLength;
+            descriptionLengths += document.descriptionLength;
+            for (String term : document.terms) {
+                postings.computeIfAbsent(term, t -> new PostingList()).add(itemId);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Indexed words of an item, sorted, with how often each occurs in the name and in the description.
+     */
+    private static class Document {
+        private final Long ownerId;
+        private final String[] terms;
+        private final int[] nameFrequencies;
+        private final int[] descriptionFrequencies;
+        private final int nameLength;
+        private final int descriptionLength;
+
+        Document(Long ownerId, List<String> name, List<String> description) {
+            this.ownerId = ownerId;
+            TreeMap<String, int[]> frequencies = new TreeMap<>();
+            name.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[0]++);
+            description.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[1]++);
+            this.terms = frequencies.keySet().toArray(new String[0]);
+            this.nameFrequencies = new int[terms.length];
+            this.descriptionFrequencies = new int[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                int[] counts = frequencies.get(terms[i]);
+                nameFrequencies[i] = counts[0];
+                descriptionFrequencies[i] = counts[1];
+            }
+            this.nameLength = name.size();
+            this.descriptionLength = description.size();
+        }
+
+        static Document of(Long ownerId, String name, String description) {
+            return new Document(ownerId, ItemTokenizer.tokenize(name), ItemTokenizer.tokenize(description));
+        }
+
+        /**
+         * BM25F score of the best word of this item that starts with {@code word}.
+         */
+        double score(String word, Map<String, PostingList> postings, int count,
+                     double averageName, double averageDescription) {
+            double best = 0;
+            int i = Arrays.binarySearch(terms, word);
+            for (i = i < 0 ? -i - 1 : i; i < terms.length && terms[i].startsWith(word); i++) {
+                best = Math.max(best, Bm25F.score(nameFrequencies[i], nameLength, averageName,
+                        descriptionFrequencies[i], descriptionLength, averageDescription,
+                        count, postings.get(terms[i]).size()));
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Optional;
+
+public enum ItemSearchSort {
+    // По возрастанию id
+    ID,
+    // Сначала самые релевантные
+    RELEVANCE;
+
+    public static Optional<ItemSearchSort> from(String value) {
+        for (ItemSearchSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Case-insensitive substring scan of names and descriptions, ordered by id. Works on any database; on
+ * PostgreSQL the {@code pg_trgm} indexes from {@code schema-postgresql.sql} answer it without a table scan.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.backend", havingValue = "like")
+public class LikeItemSearchBackend implements ItemSearchBackend {
+    private final ItemRepository itemRepository;
+
+    public LikeItemSearchBackend(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.findIdsBySearch(text.toLowerCase(), size, from);
+    }
+}
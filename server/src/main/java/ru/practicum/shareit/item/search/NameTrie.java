@@ -0,0 +1,237 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Radix tree of normalized item names. Edges carry whole label strings and children sit in an array sorted by
+ * their first character, so a name costs one node per branching point. Every node keeps how many items have
+ * exactly its name and the largest such count in its subtree, which lets {@link #top} walk the subtree
+ * best-first and stop after {@code limit} names. Not thread-safe.
+ */
+class NameTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> ORDER = Comparator.<Candidate>comparingInt(c -> -c.count)
+            .thenComparing(c -> c.key);
+
+    private final Node root = new Node("");
+
+    /**
+     * Counts one more item under {@code key}; {@code name} is shown for the key while any item has it.
+     */
+    void add(String key, String name) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int position = node.find(key.charAt(i));
+            if (position < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.insert(-position - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[position];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                middle.best = child.best;
+                node.children[position] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        if (node.count++ == 0) {
+            node.name = name;
+        }
+        updateBest(path);
+    }
+
+    /**
+     * Counts one item less under {@code key}, dropping and merging nodes that no longer carry a name.
+     */
+    void remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int position = node.find(key.charAt(i));
+            if (position < 0) {
+                return;
+            }
+            Node child = node.children[position];
+            if (!key.startsWith(child.label, i)) {
+                return;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length();
+        }
+        if (node.count == 0) {
+            return;
+        }
+        if (--node.count == 0) {
+            node.name = null;
+        }
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node current = path.get(depth);
+            Node parent = path.get(depth - 1);
+            if (current.count > 0) {
+                break;
+            }
+            if (current.children.length == 0) {
+                parent.delete(parent.find(current.label.charAt(0)));
+                path.remove(depth);
+            } else if (current.children.length == 1) {
+                Node only = current.children[0];
+                current.label = current.label + only.label;
+                current.children = only.children;
+                current.count = only.count;
+                current.name = only.name;
+                current.best = only.best;
+                break;
+            } else {
+                break;
+            }
+        }
+        updateBest(path);
+    }
+
+    /**
+     * Up to {@code limit} names whose key starts with {@code prefix}, most common first and then by key.
+     */
+    List<String> top(String prefix, int limit) {
+        Node node = root;
+        String key = "";
+        int i = 0;
+        while (i < prefix.length()) {
+            int position = node.find(prefix.charAt(i));
+            if (position < 0) {
+                return List.of();
+            }
+            Node child = node.children[position];
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                node = child;
+                key = prefix.substring(0, i) + child.label;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            i += common;
+            key = prefix.substring(0, i);
+        }
+        List<String> names = new ArrayList<>(limit);
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+        if (node.best > 0) {
+            queue.add(new Candidate(node, key, node.best, false));
+        }
+        while (!queue.isEmpty() && names.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.result) {
+                names.add(candidate.node.name);
+                continue;
+            }
+            Node current = candidate.node;
+            if (current.count > 0) {
+                queue.add(new Candidate(current, candidate.key, current.count, true));
+            }
+            for (Node child : current.children) {
+                queue.add(new Candidate(child, candidate.key + child.label, child.best, false));
+            }
+        }
+        return names;
+    }
+
+    private static void updateBest(List<Node> path) {
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            int best = node.count;
+            for (Node child : node.children) {
+                best = Math.max(best, child.best);
+            }
+            node.best = best;
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(from + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private int count;
+        private int best;
+        private String name;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Index of the child whose label starts with {@code first}, or {@code -(insertion point) - 1}.
+         */
+        int find(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char current = children[middle].label.charAt(0);
+                if (current < first) {
+                    low = middle + 1;
+                } else if (current > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insert(int position, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, position);
+            grown[position] = child;
+            System.arraycopy(children, position, grown, position + 1, children.length - position);
+            children = grown;
+        }
+
+        void delete(int position) {
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, position);
+            System.arraycopy(children, position + 1, shrunk, position, children.length - position - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+    }
+
+    private static class Candidate {
+        private final Node node;
+        private final String key;
+        private final int count;
+        private final boolean result;
+
+        Candidate(Node node, String key, int count, boolean result) {
+            this.node = node;
+            this.key = key;
+            this.count = count;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL full-text search over the generated {@code items.item_search} column (see
+ * {@code schema-postgresql.sql}). Every query word must start a lexeme of the item under either the
+ * {@code russian} or the {@code simple} configuration. Relevance is {@code ts_rank}, which weighs name lexemes
+ * above description ones.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.backend", havingValue = "postgres")
+public class PostgresItemSearchBackend implements ItemSearchBackend {
+    private final ItemRepository itemRepository;
+
+    public PostgresItemSearchBackend(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.findIdsByFullText(query, size, from);
+    }
+
+    @Override
+    public List<ItemSearchHit> searchByRelevance(String text, int from, int size) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.findRankedByFullText(query, size, from).stream()
+                .map(item -> new ItemSearchHit(item.getId(), item.getRank()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@code to_tsquery} text with every word as a prefix term; words hold only letters and digits, so they
+     * need no escaping.
+     */
+    static String toTsQuery(String text) {
+        return ItemTokenizer.tokenize(text).stream()
+                .distinct()
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
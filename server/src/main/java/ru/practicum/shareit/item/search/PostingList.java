@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ascending, duplicate-free item ids of one term, kept in a growable {@code long[]}.
+ */
+class PostingList {
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Up to {@code size} ids starting at position {@code from}.
+     */
+    List<Long> slice(int from, int size) {
+        int to = (int) Math.min(this.size, (long) from + size);
+        List<Long> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Ascending ids present in any of the lists.
+     */
+    static long[] union(Collection<PostingList> lists) {
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.ids, 0, all, offset, list.size);
+            offset += list.size;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    /**
+     * Ascending ids of {@code other} that are also in this list, without copying this list.
+     */
+    long[] intersect(long[] other) {
+        return intersect(other, other.length, ids, size);
+    }
+
+    /**
+     * Ascending ids present in both arrays.
+     */
+    static long[] intersect(long[] a, long[] b) {
+        return intersect(a, a.length, b, b.length);
+    }
+
+    /**
+     * Walks the shorter array and binary-searches the longer one forward from the last match, so a short list
+     * against a long one costs O(short * log long).
+     */
+    private static long[] intersect(long[] small, int smallSize, long[] large, int largeSize) {
+        if (smallSize > largeSize) {
+            return intersect(large, largeSize, small, smallSize);
+        }
+        long[] result = new long[smallSize];
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < smallSize && from < largeSize; i++) {
+            int position = Arrays.binarySearch(large, from, largeSize, small[i]);
+            if (position >= 0) {
+                result[count++] = small[i];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
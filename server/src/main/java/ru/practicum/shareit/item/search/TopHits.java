@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The best {@code from + size} hits seen so far, in a bounded heap, so ranking n matches costs
+ * O(n log(from + size)). Ties go to the lower id.
+ */
+class TopHits {
+    private static final Comparator<ItemSearchHit> WORST_FIRST = Comparator.comparingDouble(ItemSearchHit::getScore)
+            .thenComparing(ItemSearchHit::getItemId, Comparator.reverseOrder());
+
+    private final int from;
+    private final int limit;
+    private final PriorityQueue<ItemSearchHit> best;
+
+    TopHits(int from, int size) {
+        this.from = from;
+        this.limit = (int) Math.min(Integer.MAX_VALUE - 1, (long) from + size);
+        this.best = new PriorityQueue<>(Math.min(limit, 1024) + 1, WORST_FIRST);
+    }
+
+    void add(long itemId, double score) {
+        best.add(new ItemSearchHit(itemId, score));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    /**
+     * The kept hits, most relevant first, without the first {@code from}.
+     */
+    List<ItemSearchHit> page() {
+        List<ItemSearchHit> ranked = new ArrayList<>(best);
+        ranked.sort(WORST_FIRST.reversed());
+        return ranked.size() <= from ? List.of() : ranked.subList(from, ranked.size());
+    }
+}
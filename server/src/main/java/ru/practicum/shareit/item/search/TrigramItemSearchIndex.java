@@ -0,0 +1,296 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.IndexLock;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDeletedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.ItemTextView;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The default backend: substring search over the names and descriptions of available items, with the hits of
+ * the {@code lower(...) like '%text%'} scan. Every window of one to three characters of the lower-cased texts
+ * maps to the ascending ids of the items containing it, so a query of up to three characters reads its page
+ * straight from one list. For a longer query the candidates are the intersection of the lists of its trigrams,
+ * and each candidate is then checked for the whole query. Changes made inside a transaction are undone if that
+ * transaction rolls back. Until the index is built, searches fall back to the scan.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.backend", havingValue = "trigram", matchIfMissing = true)
+@Slf4j
+public class TrigramItemSearchIndex implements ItemSearchBackend {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final IndexLock lock = new IndexLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long nameLengths;
+    private long descriptionLengths;
+    private volatile boolean ready;
+
+    public TrigramItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        List<ItemTextView> items = itemRepository.findAvailableItemTexts();
+        lock.write(() -> {
+            postings.clear();
+            documents.clear();
+            nameLengths = 0;
+            descriptionLengths = 0;
+            items.forEach(item -> apply(item.getId(),
+                    Document.of(item.getOwnerId(), item.getName(), item.getDescription())));
+            return null;
+        });
+        ready = true;
+        log.info("Триграммный индекс вещей построен: {} вещей, {} триграмм", items.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        put(event.getItem());
+    }
+
+    @EventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        remove(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeOwner(event.getUserId());
+    }
+
+    public void put(Item item) {
+        Document document = Boolean.TRUE.equals(item.getAvailable())
+                ? Document.of(item.getOwnerId(), item.getName(), item.getDescription())
+                : null;
+        lock.change(() -> apply(item.getId(), document), previous -> apply(item.getId(), previous));
+    }
+
+    public void remove(Long itemId) {
+        lock.change(() -> apply(itemId, null), previous -> apply(itemId, previous));
+    }
+
+    public void removeOwner(Long ownerId) {
+        Map<Long, Document> removed = new HashMap<>();
+        lock.change(() -> {
+            documents.forEach((itemId, document) -> {
+                if (document.ownerId.equals(ownerId)) {
+                    removed.put(itemId, document);
+                }
+            });
+            removed.keySet().forEach(itemId -> apply(itemId, null));
+            return null;
+        }, nothing -> removed.forEach(this::apply));
+    }
+
+    /**
+     * Ids (ascending) of the available items whose name or description contains {@code text}, ignoring case,
+     * skipping the first {@code from} matches.
+     */
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        if (!ready) {
+            return itemRepository.findIdsBySearch(query, size, from);
+        }
+        return lock.read(() -> {
+            if (query.length() <= GRAM) {
+                PostingList list = postings.get(query);
+                return list == null ? List.<Long>of() : list.slice(from, size);
+            }
+            List<Long> page = new ArrayList<>();
+            int skipped = 0;
+            for (long id : candidates(query)) {
+                if (!documents.get(id).contains(query)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (page.size() < size) {
+                    page.add(id);
+                } else {
+                    break;
+                }
+            }
+            return page;
+        });
+    }
+
+    /**
+     * The same matches ranked by {@link Bm25F} with the whole query as the term: its occurrences in the name
+     * and in the description, against their lengths in characters. Only the best {@code from + size} hits are
+     * kept, see {@link TopHits}.
+     */
+    @Override
+    public List<ItemSearchHit> searchByRelevance(String text, int from, int size) {
+        if (!ready) {
+            return ItemSearchBackend.super.searchByRelevance(text, from, size);
+        }
+        String query = text.toLowerCase(Locale.ROOT);
+        TopHits best = new TopHits(from, size);
+        lock.read(() -> {
+            long[] matches = matches(query);
+            double averageName = documents.isEmpty() ? 0 : (double) nameLengths / documents.size();
+            double averageDescription = documents.isEmpty() ? 0 : (double) descriptionLengths / documents.size();
+            for (long id : matches) {
+                Document document = documents.get(id);
+                best.add(id, Bm25F.score(occurrences(document.name, query), document.name.length(), averageName,
+                        occurrences(document.description, query), document.description.length(),
+                        averageDescription, documents.size(), matches.length));
+            }
+            return null;
+        });
+        return best.page();
+    }
+
+    /**
+     * Ascending ids of all items containing {@code query}. Called under the read lock.
+     */
+    private long[] matches(String query) {
+        if (query.length() <= GRAM) {
+            PostingList list = postings.get(query);
+            return list == null ? new long[0] : list.toArray();
+        }
+        long[] ids = candidates(query);
+        int count = 0;
+        for (long id : ids) {
+            if (documents.get(id).contains(query)) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Ascending ids of the items holding every trigram of {@code query}, a query longer than a trigram,
+     * intersecting the shortest lists first. Called under the read lock.
+     */
+    private long[] candidates(String query) {
+        Set<String> grams = trigrams(query);
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] ids = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && ids.length > 0; i++) {
+            ids = lists.get(i).intersect(ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Replaces the indexed windows of the item with those of {@code document}, or drops the item when it is
+     * {@code null}, and returns what was indexed before.
+     */
+    private Document apply(Long itemId, Document document) {
+        Document previous = document == null ? documents.remove(itemId) : documents.put(itemId, document);
+        if (previous != null) {
+            nameLengths -= previous.name.length();
+            descriptionLengths -= previous.description.length();
+            for (String gram : previous.grams) {
+                PostingList list = postings.get(gram);
+                if (list != null) {
+                    list.remove(itemId);
+                    if (list.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        if (document != null) {
+            nameLengths += document.name.length();
+            descriptionLengths += document.description.length();
+            for (String gram : document.grams) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(itemId);
+            }
+        }
+        return previous;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int occurrences(String text, String query) {
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + query.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Distinct windows of one to three characters of {@code text}.
+     */
+    private static Set<String> windows(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static class Document {
+        private final Long ownerId;
+        private final String name;
+        private final String description;
+        private final String[] grams;
+
+        Document(Long ownerId, String name, String description) {
+            this.ownerId = ownerId;
+            this.name = name;
+            this.description = description;
+            Set<String> grams = windows(name);
+            grams.addAll(windows(description));
+            this.grams = grams.toArray(new String[0]);
+        }
+
+        static Document of(Long ownerId, String name, String description) {
+            return new Document(ownerId,
+                    name == null ? "" : name.toLowerCase(Locale.ROOT),
+                    description == null ? "" : description.toLowerCase(Locale.ROOT));
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -16,7 +18,13 @@ public interface ItemService {
 
     void deleteById(Long itemId, Long ownerId);
 
-    List<ItemDto> getItemsBySearch(String text, Integer from, Integer size);
+    List<ItemDto> getItemsBySearch(String text, Integer from, Integer size, String sort, Boolean scores);
+
+    List<String> getSuggestions(String prefix, Integer limit);
+
+    List<ItemDto> getFreeItems(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
 
     CommentDto addComment(CommentDto commentDto, Long itemId, Long userId);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, String granularity);
 }
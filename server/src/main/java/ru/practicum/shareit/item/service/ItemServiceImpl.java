@@ -2,45 +2,76 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
 import ru.practicum.shareit.exception.comment.CommentCreateException;
+import ru.practicum.shareit.exception.item.InvalidAvailabilityRequestException;
+import ru.practicum.shareit.exception.item.InvalidSearchRequestException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.item.*;
+import ru.practicum.shareit.item.availability.Granularity;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.pointer.ItemBookingPointer;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.pointer.PointerKind;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.item.search.ItemSearchSort;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_SLOTS = 10_000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingPointers itemBookingPointers;
+    private final OwnerBookingProjection ownerBookingProjection;
+    private final ItemSearchBackend itemSearchBackend;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ItemDto create(Long ownerId, ItemDto itemDto) {
         User owner = getUser(ownerId);
         itemDto.setOwnerId(owner.getId());
         Item item = itemRepository.save(ItemMapper.toItem(itemDto));
+        eventPublisher.publishEvent(new ItemSavedEvent(item));
         log.info("Создана вещь: {}", item);
         return ItemMapper.toItemDto(item);
     }
@@ -56,13 +87,8 @@ public class ItemServiceImpl implements ItemService {
                 .sorted(Comparator.comparing(ItemDto::getId))
                 .collect(Collectors.toList());
 
-        items.forEach(this::setLastAndNextBooking);
-
-        items.forEach(itemDto -> itemDto.setComments(commentRepository.findAllByItem_Id(itemDto.getId(),
-                        Sort.by(Sort.Direction.DESC, "created"))
-                        .stream()
-                        .map(CommentMapper::toCommentDto)
-                        .collect(Collectors.toList())));
+        setLastAndNextBookings(items);
+        setComments(items);
 
         log.info("Запрошен список всех вещей владельца");
         return items;
@@ -74,20 +100,16 @@ public class ItemServiceImpl implements ItemService {
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
         if (userId.equals(item.getOwnerId())) {
-            setLastAndNextBooking(itemDto);
+            setLastAndNextBookings(List.of(itemDto));
         }
-
-        itemDto.setComments(commentRepository.findAllByItem_Id(itemId,
-                Sort.by(Sort.Direction.DESC, "created"))
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList()));
+        setComments(List.of(itemDto));
 
         log.info("Запрошена вещь с id: {}", itemId);
         return itemDto;
     }
 
     @Override
+    @Transactional
     public ItemDto update(ItemDto itemDto, Long itemId, Long ownerId) {
         Item itemToUpdate = getItem(itemId);
 
@@ -95,8 +117,9 @@ public class ItemServiceImpl implements ItemService {
             log.warn("Вещь с id: {} не найдена", itemId);
             throw new ItemNotFoundException(itemId);
         }
-        if (itemDto.getName() != null) {
+        if (itemDto.getName() != null && !itemDto.getName().equals(itemToUpdate.getName())) {
             itemToUpdate.setName(itemDto.getName());
+            ownerBookingProjection.renameItem(itemId, itemDto.getName());
         }
         if (itemDto.getDescription() != null) {
             itemToUpdate.setDescription(itemDto.getDescription());
@@ -105,6 +128,7 @@ public class ItemServiceImpl implements ItemService {
             itemToUpdate.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(itemToUpdate);
+        eventPublisher.publishEvent(new ItemSavedEvent(itemToUpdate));
         log.info("Вещь: {} обновлена", itemToUpdate);
         return ItemMapper.toItemDto(itemToUpdate);
     }
@@ -114,6 +138,7 @@ public class ItemServiceImpl implements ItemService {
         Item item = getItem(itemId);
         if (item.getOwnerId().equals(ownerId)) {
             itemRepository.deleteById(itemId);
+            eventPublisher.publishEvent(new ItemDeletedEvent(itemId));
             log.info("Вещь: {} удалена", item);
         } else {
             log.warn("Удаление вещи: \"{}\" невозможно", item);
@@ -122,32 +147,79 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> getItemsBySearch(String text, Integer from, Integer size) {
-        Sort sort = Sort.by(Sort.Direction.ASC, "id");
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
-
+    public List<ItemDto> getItemsBySearch(String text, Integer from, Integer size, String sort, Boolean scores) {
+        ItemSearchSort order = ItemSearchSort.from(sort).orElseThrow(() ->
+                new InvalidSearchRequestException(String.format("Неизвестная сортировка: %s", sort)));
         if ((text != null) && (!text.isEmpty()) && (!text.isBlank())) {
             text = text.toLowerCase();
-            log.info("Поиск вещи по слову: \"{}\"", text);
-            return itemRepository.getItemsBySearch(text, pageRequest)
-                    .stream()
-                    .map(ItemMapper::toItemDto)
+            log.info("Поиск вещи по слову: \"{}\", сортировка: {}", text, order);
+            List<ItemSearchHit> hits = order == ItemSearchSort.RELEVANCE
+                    ? itemSearchBackend.searchByRelevance(text, from, size)
+                    : itemSearchBackend.search(text, from, size).stream()
+                    .map(id -> new ItemSearchHit(id, null))
                     .collect(Collectors.toList());
+            Map<Long, Item> items = itemRepository.findAllById(hits.stream()
+                            .map(ItemSearchHit::getItemId)
+                            .collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            List<ItemDto> result = new ArrayList<>(hits.size());
+            for (ItemSearchHit hit : hits) {
+                Item item = items.get(hit.getItemId());
+                if (item != null) {
+                    ItemDto itemDto = ItemMapper.toItemDto(item);
+                    if (Boolean.TRUE.equals(scores)) {
+                        itemDto.setScore(hit.getScore());
+                    }
+                    result.add(itemDto);
+                }
+            }
+            return result;
         } else {
             log.warn("Поиск вещи по слову: \"{}\" не дал результатов", text);
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public List<String> getSuggestions(String prefix, Integer limit) {
+        log.info("Запрошены подсказки названий вещей по началу: \"{}\"", prefix);
+        return itemNameSuggester.suggest(prefix, limit);
+    }
+
+    @Override
+    public List<ItemDto> getFreeItems(String text, LocalDateTime start, LocalDateTime end,
+                                      Integer from, Integer size) {
+        if (!start.isBefore(end)) {
+            throw new InvalidAvailabilityRequestException("Начало периода должно быть раньше окончания");
+        }
+        String search = text == null ? "" : text.trim().toLowerCase();
+        log.info("Поиск вещей, свободных с {} по {}, по слову: \"{}\"", start, end, search);
+        if (!itemAvailabilityIndex.isReady()) {
+            PageRequest pageRequest = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
+            return itemRepository.findFree(search, Status.APPROVED, start, end, pageRequest)
+                    .stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
+        List<Long> candidates = search.isEmpty() ? null : itemSearchBackend.searchAll(search);
+        List<Long> ids = itemAvailabilityIndex.findFree(candidates, start, end, from, size);
+        return itemRepository.findAllById(ids)
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .sorted(Comparator.comparing(ItemDto::getId))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public CommentDto addComment(CommentDto commentDto, Long itemId, Long userId) {
         User user = getUser(userId);
         Item item = getItem(itemId);
 
-        Booking booking = bookingRepository.findFirstByItem_IdAndBooker_IdAndEndBefore(
-                itemId, userId, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = bookingRepository.findFirstByItem_IdAndBooker_IdAndEndBefore(itemId, userId, now);
 
-        if (booking != null) {
+        if (booking != null || bookingRepository.existsArchivedEndedBefore(itemId, userId, now)) {
             Comment comment = CommentMapper.toComment(commentDto, user, item);
             return CommentMapper.toCommentDto(commentRepository.save(comment));
         } else {
@@ -156,6 +228,50 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                               String granularity) {
+        Granularity slot = Granularity.from(granularity).orElseThrow(() ->
+                new InvalidAvailabilityRequestException(String.format("Неизвестная гранулярность: %s", granularity)));
+        if (!from.isBefore(to)) {
+            throw new InvalidAvailabilityRequestException("Начало периода должно быть раньше окончания");
+        }
+        long seconds = Duration.between(from, to).getSeconds();
+        long slots = (seconds + slot.getSeconds() - 1) / slot.getSeconds();
+        if (slots > MAX_AVAILABILITY_SLOTS) {
+            throw new InvalidAvailabilityRequestException(
+                    String.format("Период содержит больше %d интервалов", MAX_AVAILABILITY_SLOTS));
+        }
+        getItem(itemId);
+
+        BitSet busy = itemAvailabilityCache.get(itemId).busySlots(from, (int) slots, slot);
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        List<AvailabilityIntervalDto> busyIntervals = new ArrayList<>();
+        int first = 0;
+        while (first < slots) {
+            boolean isBusy = busy.get(first);
+            int next = isBusy ? busy.nextClearBit(first) : busy.nextSetBit(first);
+            if (next < 0 || next > slots) {
+                next = (int) slots;
+            }
+            LocalDateTime end = from.plusSeconds(next * slot.getSeconds());
+            AvailabilityIntervalDto interval = new AvailabilityIntervalDto(
+                    from.plusSeconds(first * slot.getSeconds()), end.isAfter(to) ? to : end);
+            (isBusy ? busyIntervals : free).add(interval);
+            first = next;
+        }
+
+        log.info("Запрошена доступность вещи с id: {} c {} по {}", itemId, from, to);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .granularity(slot)
+                .free(free)
+                .busy(busyIntervals)
+                .build();
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
     }
@@ -164,23 +280,35 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
     }
 
-    private void setLastAndNextBooking(ItemDto itemDto) {
-        Booking lastBooking = bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByEndDesc(
-                itemDto.getId(), Status.APPROVED, LocalDateTime.now());
-
-        Booking nextBooking = bookingRepository.findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(
-                itemDto.getId(), Status.APPROVED, LocalDateTime.now());
+    private void setLastAndNextBookings(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, List<ItemBookingPointer>> pointers = itemBookingPointers.find(
+                items.stream().map(ItemDto::getId).collect(Collectors.toList()), LocalDateTime.now());
 
-        if (lastBooking == null) {
-            itemDto.setLastBooking(null);
-        } else {
-            itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking));
+        for (ItemDto itemDto : items) {
+            for (ItemBookingPointer pointer : pointers.getOrDefault(itemDto.getId(), List.of())) {
+                if (pointer.getKind() == PointerKind.LAST) {
+                    itemDto.setLastBooking(BookingMapper.toBookingShortDto(pointer));
+                } else {
+                    itemDto.setNextBooking(BookingMapper.toBookingShortDto(pointer));
+                }
+            }
         }
+    }
 
-        if (nextBooking == null) {
-            itemDto.setNextBooking(null);
-        } else {
-            itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking));
+    private void setComments(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
         }
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findAllByItemIdIn(
+                        items.stream().map(ItemDto::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        items.forEach(itemDto -> itemDto.setComments(
+                commentsByItemId.getOrDefault(itemDto.getId(), new ArrayList<>())));
     }
 }
@@ -9,6 +9,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "request")
+@NamedEntityGraph(name = ItemRequest.REQUESTOR, attributeNodes = @NamedAttributeNode("requestor"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,6 +17,8 @@ import java.util.Objects;
 @Setter
 @ToString
 public class ItemRequest {
+    public static final String REQUESTOR = "ItemRequest.requestor";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "request_id")
@@ -24,8 +27,9 @@ public class ItemRequest {
     @Column(name = "request_description")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id")
+    @ToString.Exclude
     private User requestor;
 
     @Column(name = "request_created")
@@ -3,15 +3,22 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Override
+    @EntityGraph(ItemRequest.REQUESTOR)
+    Optional<ItemRequest> findById(Long id);
 
+    @EntityGraph(ItemRequest.REQUESTOR)
     List<ItemRequest> findByRequestorId(long requestorId, Sort sort);
 
+    @EntityGraph(ItemRequest.REQUESTOR)
     Page<ItemRequest> findAllByRequestorIdNot(long userId, Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the user service once a user has been deleted together with their items and bookings.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserDeletedEvent {
+    private final Long userId;
+}
@@ -2,13 +2,16 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.user.UserCreateException;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.util.List;
@@ -19,6 +22,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImp implements UserService {
     private final UserRepository userRepository;
+    private final ItemBookingPointers itemBookingPointers;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto create(UserDto userDto) {
@@ -75,7 +80,10 @@ public class UserServiceImp implements UserService {
     public void deleteById(Long id) {
         if (id != null) {
             User user = getUser(id);
+            List<Long> bookedItemIds = itemBookingPointers.findItemIdsBookedBy(user.getId());
             userRepository.deleteById(user.getId());
+            eventPublisher.publishEvent(new UserDeletedEvent(user.getId()));
+            itemBookingPointers.refresh(bookedItemIds);
             log.info("Пользователь с id: {} удален", user.getId());
         }
     }
@@ -0,0 +1,37 @@
+-- On PostgreSQL the archive is range-partitioned by end_date, one partition per year; BookingArchive creates
+-- the partition of a year before it moves the first booking of that year.
+DROP TABLE IF EXISTS bookings_archive CASCADE;
+
+create table if not exists bookings_archive (
+                                        booking_id bigint not null,
+                                        start_date timestamp without time zone,
+                                        end_date   timestamp without time zone not null,
+                                        item_id    bigint not null,
+                                        booker_id  bigint not null,
+                                        status     varchar(20),
+                                        version    bigint not null default 0,
+                                        constraint bookings_archive_pk primary key (booking_id, end_date),
+                                        constraint bookings_archive_users_fk foreign key (booker_id) references users (user_id) on delete cascade,
+                                        constraint bookings_archive_items_fk foreign key (item_id) references items (item_id) on delete cascade
+) partition by range (end_date);
+
+create index if not exists bookings_archive_booker_start_idx on bookings_archive (booker_id, start_date desc, booking_id desc);
+create index if not exists bookings_archive_item_start_idx on bookings_archive (item_id, start_date desc, booking_id desc);
+
+-- Full-text search vector for the postgres item search backend: names weigh more than descriptions, and each
+-- text is indexed under both the stemming russian configuration and the verbatim simple one.
+alter table items add column if not exists item_search tsvector generated always as (
+    setweight(to_tsvector('russian', replace(lower(coalesce(item_name, '')), 'ё', 'е')), 'A') ||
+    setweight(to_tsvector('simple', replace(lower(coalesce(item_name, '')), 'ё', 'е')), 'A') ||
+    setweight(to_tsvector('russian', replace(lower(coalesce(item_description, '')), 'ё', 'е')), 'B') ||
+    setweight(to_tsvector('simple', replace(lower(coalesce(item_description, '')), 'ё', 'е')), 'B')
+) stored;
+
+create index if not exists items_search_idx on items using gin (item_search);
+
+-- Trigram indexes for substring search: lower(item_name) like '%text%' reads candidates from the GIN index
+-- and rechecks them instead of scanning the table.
+create extension if not exists pg_trgm;
+
+create index if not exists items_name_trgm_idx on items using gin (lower(item_name) gin_trgm_ops);
+create index if not exists items_description_trgm_idx on items using gin (lower(item_description) gin_trgm_ops);
@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, request CASCADE;
+DROP TABLE IF EXISTS users, items, bookings, bookings_archive, booking_changes, booking_change_counter, booking_change_pending, comments, request, item_booking_pointers, booking_idempotency_keys, owner_booking_view CASCADE;
 
 create table if not exists users (
                                        user_id    bigint generated by default as identity not null,
@@ -26,11 +26,75 @@ create table if not exists bookings (
                                         item_id    bigint not null,
                                         booker_id  bigint not null,
                                         status     varchar(20),
+                                        version    bigint not null default 0,
                                         constraint booking_pk primary key (booking_id),
                                         constraint bookings_users_fk foreign key (booker_id) references users (user_id) on delete cascade,
                                         constraint bookings_items_fk foreign key (item_id) references items (item_id) on delete cascade
 );
 
+create table if not exists bookings_archive (
+                                        booking_id bigint not null,
+                                        start_date timestamp without time zone,
+                                        end_date   timestamp without time zone not null,
+                                        item_id    bigint not null,
+                                        booker_id  bigint not null,
+                                        status     varchar(20),
+                                        version    bigint not null default 0,
+                                        constraint bookings_archive_pk primary key (booking_id, end_date),
+                                        constraint bookings_archive_users_fk foreign key (booker_id) references users (user_id) on delete cascade,
+                                        constraint bookings_archive_items_fk foreign key (item_id) references items (item_id) on delete cascade
+);
+
+create table if not exists item_booking_pointers (
+                                        item_id      bigint not null,
+                                        pointer_kind varchar(4) not null,
+                                        booking_id   bigint not null,
+                                        booker_id    bigint not null,
+                                        start_date   timestamp without time zone,
+                                        end_date     timestamp without time zone,
+                                        constraint item_booking_pointers_pk primary key (item_id, pointer_kind),
+                                        constraint item_booking_pointers_items_fk foreign key (item_id) references items (item_id) on delete cascade,
+                                        constraint item_booking_pointers_bookings_fk foreign key (booking_id) references bookings (booking_id) on delete cascade
+);
+
+create table if not exists booking_changes (
+                                        change_seq bigint not null,
+                                        booking_id bigint not null,
+                                        booker_id  bigint not null,
+                                        owner_id   bigint not null,
+                                        constraint booking_changes_pk primary key (change_seq),
+                                        constraint booking_changes_bookers_fk foreign key (booker_id) references users (user_id) on delete cascade,
+                                        constraint booking_changes_owners_fk foreign key (owner_id) references users (user_id) on delete cascade
+);
+
+create table if not exists booking_change_counter (
+                                        counter_id smallint not null,
+                                        last_seq   bigint   not null,
+                                        constraint booking_change_counter_pk primary key (counter_id)
+);
+
+insert into booking_change_counter (counter_id, last_seq)
+select 1, 0 where not exists (select 1 from booking_change_counter);
+
+create table if not exists booking_change_pending (
+                                        change_seq bigint not null,
+                                        created    timestamp without time zone not null,
+                                        constraint booking_change_pending_pk primary key (change_seq)
+);
+
+create table if not exists owner_booking_view (
+                                        booking_id bigint not null,
+                                        owner_id   bigint not null,
+                                        item_id    bigint not null,
+                                        item_name  varchar(50),
+                                        booker_id  bigint not null,
+                                        start_date timestamp without time zone,
+                                        end_date   timestamp without time zone,
+                                        status     varchar(20),
+                                        constraint owner_booking_view_pk primary key (booking_id),
+                                        constraint owner_booking_view_bookings_fk foreign key (booking_id) references bookings (booking_id) on delete cascade
+);
+
 create table if not exists comments (
                                         comment_id bigint generated by default as identity not null,
                                         comment_text varchar(255) not null,
@@ -50,3 +114,27 @@ create table if not exists request (
                                        constraint request_pk primary key (request_id),
                                        constraint request_user_fk foreign key (requestor_id) references users (user_id) on delete cascade
 );
+
+create table if not exists booking_idempotency_keys (
+                                       idempotency_key varchar(300) not null,
+                                       fingerprint     varchar(100) not null,
+                                       response        text not null,
+                                       created         timestamp without time zone not null,
+                                       constraint booking_idempotency_keys_pk primary key (idempotency_key)
+);
+
+create index if not exists items_owner_idx on items (item_owner_id, item_id);
+create index if not exists bookings_booker_start_idx on bookings (booker_id, start_date desc, booking_id desc);
+create index if not exists bookings_booker_status_start_idx on bookings (booker_id, status, start_date desc, booking_id desc);
+create index if not exists bookings_item_start_idx on bookings (item_id, start_date desc, booking_id desc);
+create index if not exists bookings_item_status_start_idx on bookings (item_id, status, start_date desc, booking_id desc);
+create index if not exists bookings_end_idx on bookings (end_date);
+create index if not exists bookings_archive_booker_start_idx on bookings_archive (booker_id, start_date desc, booking_id desc);
+create index if not exists bookings_archive_item_start_idx on bookings_archive (item_id, start_date desc, booking_id desc);
+create index if not exists booking_changes_booker_seq_idx on booking_changes (booker_id, change_seq, booking_id);
+create index if not exists booking_changes_owner_seq_idx on booking_changes (owner_id, change_seq, booking_id);
+create index if not exists item_booking_pointers_kind_start_idx on item_booking_pointers (pointer_kind, start_date);
+create index if not exists owner_booking_view_owner_start_idx on owner_booking_view (owner_id, start_date desc, booking_id desc, end_date, status, item_id, item_name, booker_id);
+create index if not exists owner_booking_view_owner_status_start_idx on owner_booking_view (owner_id, status, start_date desc, booking_id desc, end_date, item_id, item_name, booker_id);
+create index if not exists owner_booking_view_item_idx on owner_booking_view (item_id);
+create index if not exists booking_idempotency_keys_created_idx on booking_idempotency_keys (created);
@@ -0,0 +1,151 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each read endpoint issues, so that an association going back to eager
+ * loading (or a list page loading rows one by one) shows up as a failing count.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class QueryCountTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private ItemDto item;
+
+    private BookingDto booking;
+
+    private ItemRequestDto request;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(UserDto.builder().name("owner").email("owner@query.ru").build());
+        booker = userService.create(UserDto.builder().name("booker").email("booker@query.ru").build());
+        itemRequestService.create(ItemRequestDto.builder().description("need a drill").build(),
+                booker.getId(), LocalDateTime.now());
+        request = itemRequestService.getAllByUser(booker.getId()).get(0);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < ITEMS; i++) {
+            item = itemService.create(owner.getId(), ItemDto.builder()
+                    .name("drill" + i)
+                    .description("drill" + i)
+                    .available(true)
+                    .requestId(request.getId())
+                    .build());
+            booking = bookingService.create(new BookingInputDto(item.getId(), start.plusDays(i),
+                    start.plusDays(i).plusHours(1)), booker.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Get booking by id")
+    void testGetBookingById() throws Exception {
+        assertEquals(2, statements(get("/bookings/{bookingId}", booking.getId()).header(HEADER, owner.getId())));
+    }
+
+    @Test
+    @DisplayName("Get bookings of booker")
+    void testGetBookings() throws Exception {
+        assertEquals(2, statements(get("/bookings").header(HEADER, booker.getId())));
+    }
+
+    @Test
+    @DisplayName("Get bookings of owner")
+    void testGetBookingsByOwner() throws Exception {
+        assertEquals(2, statements(get("/bookings/owner").header(HEADER, owner.getId())));
+    }
+
+    @Test
+    @DisplayName("Get compact bookings of owner")
+    void testGetCompactBookingsByOwner() throws Exception {
+        assertEquals(2, statements(get("/bookings/owner").param("view", "compact").header(HEADER, owner.getId())));
+    }
+
+    @Test
+    @DisplayName("Get item by id")
+    void testGetItemById() throws Exception {
+        assertEquals(3, statements(get("/items/{itemId}", item.getId()).header(HEADER, owner.getId())));
+    }
+
+    @Test
+    @DisplayName("Get items of owner")
+    void testGetItemsByOwner() throws Exception {
+        assertEquals(3, statements(get("/items").header(HEADER, owner.getId())));
+    }
+
+    @Test
+    @DisplayName("Get request by id")
+    void testGetRequestById() throws Exception {
+        assertEquals(3, statements(get("/requests/{requestId}", request.getId()).header(HEADER, booker.getId())));
+    }
+
+    @Test
+    @DisplayName("Get requests of requestor")
+    void testGetRequestsByUser() throws Exception {
+        assertEquals(3, statements(get("/requests").header(HEADER, booker.getId())));
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
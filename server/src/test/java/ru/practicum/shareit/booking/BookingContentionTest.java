@@ -0,0 +1,216 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemLockStripes;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.exception.booking.BookingOverlapException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.archive.BookingArchiveRepository;
+import ru.practicum.shareit.booking.changes.BookingChangeLog;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
+import ru.practicum.shareit.booking.owner.OwnerBookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+public class BookingContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 40;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+
+    @Mock
+    private OwnerBookingRepository ownerBookingRepository;
+
+    @Mock
+    private OwnerBookingProjection ownerBookingProjection;
+
+    @Mock
+    private BookingSummaryCounters bookingSummaryCounters;
+
+    @Mock
+    private BookingArchive bookingArchive;
+
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private BookingChangeLog bookingChangeLog;
+
+    private BookingService bookingService;
+
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+
+    private final AtomicLong bookingIds = new AtomicLong();
+
+    private final User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+
+    private final User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(0, Long.class).equals(owner.getId())
+                        ? owner : booker));
+        when(itemRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(Item.builder()
+                        .id(invocation.getArgument(0))
+                        .name("item")
+                        .description("item")
+                        .available(true)
+                        .ownerId(owner.getId())
+                        .build()));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    Booking booking = invocation.getArgument(0);
+                    TimeUnit.MILLISECONDS.sleep(1);
+                    if (booking.getId() == null) {
+                        booking.setId(bookingIds.incrementAndGet());
+                    }
+                    bookings.put(booking.getId(), booking);
+                    return booking;
+                });
+        when(bookingRepository.findTimelineEntries(anyCollection()))
+                .thenReturn(List.of());
+
+        BookingTimelineIndex index = new BookingTimelineIndex(bookingRepository);
+        index.rebuild();
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository, index,
+                new ItemLockStripes(64), itemBookingPointers,
+                event -> index.onBookingChanged((BookingChangedEvent) event),
+                ownerBookingRepository, ownerBookingProjection, TransactionOperations.withoutTransaction(),
+                bookingSummaryCounters, bookingArchive, bookingArchiveRepository, bookingChangeLog);
+    }
+
+    @Test
+    @DisplayName("Only one of concurrent overlapping approvals wins")
+    void testOnlyOneOfConcurrentOverlappingApprovalsWins() throws Exception {
+        when(bookingRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(bookings.get(invocation.getArgument(0, Long.class))));
+        List<Long> waiting = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            waiting.add(bookingService.create(new BookingInputDto(1L, START.plusHours(i), START.plusHours(i + 24)),
+                    booker.getId()).getId());
+        }
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(waiting.size(), i -> {
+            try {
+                bookingService.update(waiting.get(i), owner.getId(), true);
+                approved.incrementAndGet();
+            } catch (BookingOverlapException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, approved.get());
+        assertEquals(waiting.size() - 1, conflicts.get());
+        assertEquals(1, bookings.values().stream().filter(booking -> booking.getStatus() == Status.APPROVED).count());
+    }
+
+    /**
+     * Compares wall-clock throughput, so it only runs when asked for with
+     * {@code -Dshareit.booking.contention.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "shareit.booking.contention.benchmark", matches = "true")
+    @DisplayName("Booking throughput scales with distinct items")
+    void testBookingThroughputScalesWithDistinctItems() throws Exception {
+        double hotItem = throughput(1);
+        double distinctItems = throughput(THREADS);
+
+        log.info("Пропускная способность создания бронирований: одна вещь {} оп/с, {} вещей {} оп/с",
+                Math.round(hotItem), THREADS, Math.round(distinctItems));
+        assertTrue(distinctItems > hotItem * 2,
+                String.format("%.0f ops/s on %d items vs %.0f ops/s on one item", distinctItems, THREADS, hotItem));
+    }
+
+    private double throughput(int items) throws Exception {
+        long started = System.nanoTime();
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                long itemId = 100L + items + thread % items;
+                LocalDateTime start = START.plusDays(thread * BOOKINGS_PER_THREAD + i);
+                BookingDto booking = bookingService.create(new BookingInputDto(itemId, start, start.plusHours(1)),
+                        booker.getId());
+                assertEquals(Status.WAITING, booking.getStatus());
+            }
+        });
+        return THREADS * BOOKINGS_PER_THREAD / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private void runConcurrently(int tasks, IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    task.accept(index);
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -6,13 +6,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.feed.BookingFeed;
+import ru.practicum.shareit.booking.idempotency.BookingIdempotency;
+import ru.practicum.shareit.booking.idempotency.InMemoryIdempotencyStore;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.user.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -21,16 +33,24 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = {BookingController.class})
+@Import({BookingIdempotency.class, InMemoryIdempotencyStore.class})
 public class BookingControllerTest {
 
     private static final String HEADER = "X-Sharer-User-Id";
@@ -42,6 +62,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingFeed bookingFeed;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -112,10 +135,43 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString()), Status.class));
     }
 
+    @Test
+    @DisplayName("Replay booking creation by idempotency key")
+    void testCreateBookingWithIdempotencyKey() throws Exception {
+        when(bookingService.create(Mockito.any(), anyLong()))
+                .thenReturn(bookingDto);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/bookings")
+                    .header(HEADER, 2)
+                    .header("Idempotency-Key", "retry-1")
+                    .content(objectMapper.writeValueAsString(bookingInputDto))
+                    .contentType(MediaType.APPLICATION_JSON))
+
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
+        }
+        verify(bookingService, times(1)).create(Mockito.any(), anyLong());
+
+        BookingInputDto otherInput = BookingInputDto.builder()
+                .itemId(2L)
+                .start(bookingInputDto.getStart())
+                .end(bookingInputDto.getEnd())
+                .build();
+        mockMvc.perform(post("/bookings")
+                .header(HEADER, 2)
+                .header("Idempotency-Key", "retry-1")
+                .content(objectMapper.writeValueAsString(otherInput))
+                .contentType(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isUnprocessableEntity());
+        verify(bookingService, times(1)).create(Mockito.any(), anyLong());
+    }
+
     @Test
     @DisplayName("Update booking")
     void testUpdateBooking() throws Exception {
-        when(bookingService.update(anyLong(), anyLong(), anyBoolean()))
+        when(bookingService.update(anyLong(), anyLong(), anyBoolean(), isNull()))
                 .thenReturn(bookingDto);
 
         mockMvc.perform(patch("/bookings/1")
@@ -136,6 +192,31 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString()), Status.class));
     }
 
+    @Test
+    @DisplayName("Bulk booking approval")
+    void testUpdateBookings() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingService.updateAll(anyLong(), anyList()))
+                .thenReturn(List.of(BookingDecisionResultDto.applied(bookingDto),
+                        BookingDecisionResultDto.rejected(2L, "Бронирование с id: 2 не найдено")));
+
+        mockMvc.perform(patch("/bookings/batch")
+                .header(HEADER, 2)
+                .content(objectMapper.writeValueAsString(decisions))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].success", is(true)))
+                .andExpect(jsonPath("$[0].booking.status", is(bookingDto.getStatus().toString())))
+                .andExpect(jsonPath("$[1].bookingId", is(2)))
+                .andExpect(jsonPath("$[1].success", is(false)))
+                .andExpect(jsonPath("$[1].error", is("Бронирование с id: 2 не найдено")));
+    }
+
     @Test
     @DisplayName("Get booking by id")
     void testGetBookingById() throws Exception {
@@ -204,4 +285,116 @@ public class BookingControllerTest {
                         is(bookingDto.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().toString()), Status.class));
     }
+
+    @Test
+    @DisplayName("Get compact bookings by owner")
+    void testGetCompactBookingsByOwner() throws Exception {
+        BookingCompactDto compactDto = new BookingCompactDto(bookingDto.getId(), bookingDto.getStart(),
+                bookingDto.getEnd(), bookingDto.getStatus(), itemDto.getId(), itemDto.getName(), userBookerDto.getId());
+        when(bookingService.getCompactBookingsByOwner(anyString(), anyLong(), isNull(), anyInt(), anyInt()))
+                .thenReturn(List.of(compactDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                .header(HEADER, 2)
+                .queryParam("view", "compact")
+                .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].itemId", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].itemName", is(itemDto.getName())))
+                .andExpect(jsonPath("$.[0].bookerId", is(userBookerDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].item").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Bad request when unknown booking list view")
+    void testGetBookingsWithUnknownView() throws Exception {
+        mockMvc.perform(get("/bookings")
+                .header(HEADER, 2)
+                .queryParam("view", "tiny")
+                .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Export bookings of owner as NDJSON")
+    void testExportBookingsByOwner() throws Exception {
+        BookingCompactDto first = new BookingCompactDto(2L, bookingDto.getStart(), bookingDto.getEnd(),
+                Status.APPROVED, itemDto.getId(), itemDto.getName(), userBookerDto.getId());
+        BookingCompactDto second = new BookingCompactDto(1L, bookingDto.getStart(), bookingDto.getEnd(),
+                Status.WAITING, itemDto.getId(), itemDto.getName(), userBookerDto.getId());
+        doAnswer(invocation -> {
+            Consumer<BookingCompactDto> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(bookingService).exportBookingsByOwner(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(HEADER, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Not found before streaming the export of an unknown user")
+    void testExportBookingsOfUnknownUser() throws Exception {
+        doThrow(new UserNotFoundException(99L)).when(bookingService).checkUser(99L);
+
+        mockMvc.perform(get("/bookings/export")
+                        .header(HEADER, 99))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(HEADER, 99))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+        verify(bookingService, never()).exportBookings(any(), any());
+        verify(bookingService, never()).exportBookingsByOwner(any(), any());
+    }
+
+    @Test
+    @DisplayName("Get bookings by cursor")
+    void testGetBookingsByCursor() throws Exception {
+        String cursor = BookingCursor.of(bookingDto).encode();
+        when(bookingService.getBookings(anyString(), anyLong(), any(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                .header(HEADER, 2)
+                .queryParam("cursor", cursor)
+                .queryParam("size", "1")
+                .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", cursor))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    @DisplayName("Get bookings by owner with invalid cursor")
+    void testGetBookingsByOwnerWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                .header(HEADER, 2)
+                .queryParam("cursor", "not a cursor")
+                .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isBadRequest());
+    }
+
+    @TestConfiguration
+    static class IdempotencyConfiguration {
+        @Bean
+        TransactionOperations transactionOperations() {
+            return TransactionOperations.withoutTransaction();
+        }
+    }
 }
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
@@ -15,6 +20,8 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -23,6 +30,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
         scripts = {"/schema.sql"})
 public class BookingRepositoryTest {
 
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -32,6 +41,9 @@ public class BookingRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
 
     User user = User
             .builder()
@@ -97,7 +109,8 @@ public class BookingRepositoryTest {
     void testFindByBookerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerId(booker.getId(), PageRequest.of(0, 10));
+        List<Booking> bookings = findByState(BookingSpecifications.hasBooker(booker.getId()), State.ALL,
+                LocalDateTime.of(2025, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -106,16 +119,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by booker id and start is before and end is after")
-    void testFindByBookerIdAndStartIsBeforeAndEndIsAfter() {
+    @DisplayName("Find current bookings by booker id")
+    void testFindCurrentByBookerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                booker.getId(),
-                LocalDateTime.of(2025, 1, 1, 15, 0),
-                LocalDateTime.of(2025, 1, 1, 12, 0),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasBooker(booker.getId()), State.CURRENT,
+                LocalDateTime.of(2025, 1, 1, 12, 30));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -124,16 +133,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by booker id and start is before and end is before")
-    void findByBookerIdAndStartIsBeforeAndEndIsBefore() {
+    @DisplayName("Find past bookings by booker id")
+    void testFindPastByBookerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsBefore(
-                booker.getId(),
-                LocalDateTime.of(2025, 1, 1, 15, 0),
-                LocalDateTime.of(2025, 1, 1, 18, 0),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasBooker(booker.getId()), State.PAST,
+                LocalDateTime.of(2025, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -142,15 +147,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by booker id and start is after")
-    void findByBookerIdAndStartIsAfter() {
+    @DisplayName("Find future bookings by booker id")
+    void testFindFutureByBookerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartIsAfter(
-                booker.getId(),
-                LocalDateTime.of(2022, 1, 1, 15, 0),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasBooker(booker.getId()), State.FUTURE,
+                LocalDateTime.of(2022, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -159,15 +161,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by booker id and status")
-    void findByBookerIdAndStatus() {
+    @DisplayName("Find waiting bookings by booker id")
+    void testFindWaitingByBookerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStatus(
-                booker.getId(),
-                Status.WAITING,
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasBooker(booker.getId()), State.WAITING,
+                LocalDateTime.of(2025, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -177,13 +176,11 @@ public class BookingRepositoryTest {
 
     @Test
     @DisplayName("Find by item owner id")
-    void findByItem_OwnerId() {
+    void testFindByItemOwnerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItem_OwnerId(
-                user.getId(),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasItemOwner(user.getId()), State.ALL,
+                LocalDateTime.of(2025, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -192,16 +189,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by item owner id and start is before and end is after")
-    void findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter() {
+    @DisplayName("Find current bookings by item owner id")
+    void testFindCurrentByItemOwnerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(
-                user.getId(),
-                LocalDateTime.of(2025, 1, 1, 15, 0),
-                LocalDateTime.of(2025, 1, 1, 12, 0),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasItemOwner(user.getId()), State.CURRENT,
+                LocalDateTime.of(2025, 1, 1, 12, 30));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -210,15 +203,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by item owner id and end is before")
-    void findByItem_OwnerIdAndEndIsBefore() {
+    @DisplayName("Find past bookings by item owner id")
+    void testFindPastByItemOwnerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItem_OwnerIdAndEndIsBefore(
-                user.getId(),
-                LocalDateTime.of(2025, 1, 1, 15, 0),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasItemOwner(user.getId()), State.PAST,
+                LocalDateTime.of(2025, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -227,15 +217,12 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by item owner id and start is after")
-    void findByItem_OwnerIdAndStartIsAfter() {
+    @DisplayName("Find future bookings by item owner id")
+    void testFindFutureByItemOwnerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItem_OwnerIdAndStartIsAfter(
-                user.getId(),
-                LocalDateTime.of(2022, 1, 1, 15, 0),
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasItemOwner(user.getId()), State.FUTURE,
+                LocalDateTime.of(2022, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
@@ -244,19 +231,107 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    @DisplayName("Find by item owner id and status")
-    void findByItem_OwnerIdAndStatus() {
+    @DisplayName("Find waiting bookings by item owner id")
+    void testFindWaitingByItemOwnerId() {
         bookingRepository.save(booking);
 
-        List<Booking> bookings = bookingRepository.findByItem_OwnerIdAndStatus(
-                user.getId(),
-                Status.WAITING,
-                PageRequest.of(0, 10)
-        );
+        List<Booking> bookings = findByState(BookingSpecifications.hasItemOwner(user.getId()), State.WAITING,
+                LocalDateTime.of(2025, 1, 1, 15, 0));
 
         assertEquals(1, bookings.size());
         assertEquals(1, bookings.get(0).getId());
         assertEquals(item.getId(), bookings.get(0).getItem().getId());
         assertEquals(booker.getId(), bookings.get(0).getBooker().getId());
     }
+
+    @Test
+    @DisplayName("State specifications select the bookings of each state")
+    void testStateSpecificationsSelectBookingsOfEachState() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 10, 12, 0);
+        Long pastApproved = saveBooking(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Long currentApproved = saveBooking(now.minusDays(1), now.plusDays(1), Status.APPROVED);
+        Long currentWaiting = saveBooking(now.minusHours(1), now.plusHours(1), Status.WAITING);
+        Long futureWaiting = saveBooking(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        Long futureRejected = saveBooking(now.plusDays(3), now.plusDays(4), Status.REJECTED);
+        Long futureCanceled = saveBooking(now.plusDays(5), now.plusDays(6), Status.CANCELED);
+
+        for (Specification<Booking> role : List.of(BookingSpecifications.hasBooker(booker.getId()),
+                BookingSpecifications.hasItemOwner(user.getId()))) {
+            assertEquals(List.of(futureCanceled, futureRejected, futureWaiting, currentWaiting, currentApproved,
+                    pastApproved), ids(findByState(role, State.ALL, now)));
+            assertEquals(List.of(currentWaiting, currentApproved), ids(findByState(role, State.CURRENT, now)));
+            assertEquals(List.of(pastApproved), ids(findByState(role, State.PAST, now)));
+            assertEquals(List.of(futureCanceled, futureRejected, futureWaiting),
+                    ids(findByState(role, State.FUTURE, now)));
+            assertEquals(List.of(futureWaiting, currentWaiting), ids(findByState(role, State.WAITING, now)));
+            assertEquals(List.of(futureRejected), ids(findByState(role, State.REJECTED, now)));
+        }
+        assertEquals(List.of(futureRejected, futureWaiting, currentWaiting),
+                ids(bookingRepository.findAll(BookingSpecifications.hasBooker(booker.getId()), SORT, 1, 3)));
+    }
+
+    @Test
+    @DisplayName("Compact projection matches entities without loading them")
+    void testFindAllCompactMatchesEntitiesWithoutLoadingThem() {
+        saveBooking(LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 2, 12, 0), Status.WAITING);
+        saveBooking(LocalDateTime.of(2025, 1, 3, 12, 0), LocalDateTime.of(2025, 1, 4, 12, 0), Status.APPROVED);
+        saveBooking(LocalDateTime.of(2025, 1, 5, 12, 0), LocalDateTime.of(2025, 1, 6, 12, 0), Status.REJECTED);
+        Specification<Booking> specification = BookingSpecifications.hasItemOwner(user.getId());
+        List<Booking> bookings = bookingRepository.findAll(specification, SORT, 0, 10);
+        entityManager.clear();
+
+        List<BookingCompactDto> compact = bookingRepository.findAllCompact(specification, SORT, 0, 10);
+
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        assertEquals(bookings.size(), compact.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            assertEquals(bookings.get(i).getId(), compact.get(i).getId());
+            assertEquals(bookings.get(i).getStart(), compact.get(i).getStart());
+            assertEquals(bookings.get(i).getStatus(), compact.get(i).getStatus());
+            assertEquals(item.getId(), compact.get(i).getItemId());
+            assertEquals(item.getName(), compact.get(i).getItemName());
+            assertEquals(booker.getId(), compact.get(i).getBookerId());
+        }
+    }
+
+    @Test
+    @DisplayName("Export stream yields compact rows without loading entities")
+    void testStreamByItemOwnerIdWithoutLoadingEntities() {
+        for (int i = 0; i < 50; i++) {
+            saveBooking(LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(i),
+                    LocalDateTime.of(2025, 1, 1, 13, 0).plusDays(i), Status.WAITING);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookingCompactDto> exported;
+        try (Stream<BookingCompactDto> bookings = bookingRepository.streamByItemOwnerId(user.getId())) {
+            exported = bookings.collect(Collectors.toList());
+        }
+
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        assertEquals(50, exported.size());
+        assertEquals(LocalDateTime.of(2025, 2, 19, 12, 0), exported.get(0).getStart());
+        assertEquals(item.getName(), exported.get(0).getItemName());
+        assertEquals(exported.size(), bookingRepository.streamByBookerId(booker.getId()).count());
+    }
+
+    private List<Booking> findByState(Specification<Booking> role, State state, LocalDateTime now) {
+        return bookingRepository.findAll(Specification.where(role).and(BookingSpecifications.inState(state, now)),
+                SORT, 0, 10);
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    private Long saveBooking(LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build()).getId();
+    }
 }
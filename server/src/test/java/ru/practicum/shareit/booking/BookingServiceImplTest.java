@@ -4,21 +4,49 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemLockStripes;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
 import ru.practicum.shareit.exception.booking.BookingNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.archive.BookingArchiveRepository;
+import ru.practicum.shareit.booking.changes.BookingChangeLog;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
+import ru.practicum.shareit.booking.owner.OwnerBookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -26,6 +54,27 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceImplTest {
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OwnerBookingRepository ownerBookingRepository;
+
+    @Mock
+    private OwnerBookingProjection ownerBookingProjection;
+
+    @Mock
+    private BookingSummaryCounters bookingSummaryCounters;
+
+    @Mock
+    private BookingArchive bookingArchive;
+
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private BookingChangeLog bookingChangeLog;
+
     @Mock
     BookingRepository bookingRepository;
 
@@ -35,6 +84,12 @@ public class BookingServiceImplTest {
     @Mock
     ItemRepository itemRepository;
 
+    @Mock
+    BookingTimelineIndex bookingTimelineIndex;
+
+    @Mock
+    ItemBookingPointers itemBookingPointers;
+
     @Test
     @DisplayName("Exception when get booking with wrong id")
     void testExceptionWhenGetBookingWithWrongId() {
@@ -46,7 +101,10 @@ public class BookingServiceImplTest {
                 .build();
 
         BookingService bookingService = new BookingServiceImpl(bookingRepository,
-                userRepository, itemRepository);
+                userRepository, itemRepository, bookingTimelineIndex, new ItemLockStripes(1),
+                itemBookingPointers, eventPublisher, ownerBookingRepository,
+                ownerBookingProjection, TransactionOperations.withoutTransaction(), bookingSummaryCounters,
+                bookingArchive, bookingArchiveRepository, bookingChangeLog);
 
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
@@ -56,4 +114,72 @@ public class BookingServiceImplTest {
 
         assertThrows(BookingNotFoundException.class, () -> bookingService.getById(-1L, 1L));
     }
+
+    @Test
+    @DisplayName("Bulk approval reports a concurrent change per booking")
+    void testUpdateAllReportsConflictPerBooking() {
+        User owner = User.builder().id(1L).name("owner").email("owner@example.com").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@example.com").build();
+        Item item = Item.builder().id(1L).name("item").description("item").available(true).ownerId(1L).build();
+        BookingService bookingService = new BookingServiceImpl(bookingRepository,
+                userRepository, itemRepository, bookingTimelineIndex, new ItemLockStripes(1),
+                itemBookingPointers, eventPublisher, ownerBookingRepository,
+                ownerBookingProjection, new TransactionTemplate(new NoOpTransactionManager()), bookingSummaryCounters,
+                bookingArchive, bookingArchiveRepository, bookingChangeLog);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(anySet()))
+                .thenReturn(List.of(waiting(1L, item, booker), waiting(2L, item, booker)));
+        when(bookingRepository.saveAll(anyList()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+        Booking changed = waiting(1L, item, booker);
+        Booking rejected = waiting(2L, item, booker);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(changed));
+        when(bookingRepository.findById(2L)).thenReturn(Optional.of(rejected));
+        when(bookingRepository.save(changed)).thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+        when(bookingRepository.save(rejected)).thenReturn(rejected);
+
+        List<BookingDecisionResultDto> results = bookingService.updateAll(1L, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false)));
+
+        assertFalse(results.get(0).getSuccess());
+        assertEquals("Бронирование с id: 1 было изменено другим запросом", results.get(0).getError());
+        assertTrue(results.get(1).getSuccess());
+        assertEquals(Status.REJECTED, results.get(1).getBooking().getStatus());
+    }
+
+    private static Booking waiting(Long id, Item item, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(LocalDateTime.of(2030, 12, 25, 12, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 26, 12, 0, 0))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .version(0L)
+                .build();
+    }
+
+    /**
+     * Runs callbacks with transaction synchronization active but without a resource behind it.
+     */
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
 }
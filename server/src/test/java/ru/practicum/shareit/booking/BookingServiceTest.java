@@ -6,14 +6,24 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.changes.BookingChangeBatch;
+import ru.practicum.shareit.booking.changes.BookingChangeLog;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.exception.booking.BookingConflictException;
 import ru.practicum.shareit.exception.booking.BookingCreateException;
 import ru.practicum.shareit.exception.booking.BookingNotFoundException;
 import ru.practicum.shareit.exception.booking.InvalidBookingException;
+import ru.practicum.shareit.exception.booking.InvalidChangesRequestException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -23,9 +33,14 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -35,6 +50,9 @@ public class BookingServiceTest {
     private final BookingService bookingService;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingTimelineIndex bookingTimelineIndex;
+    private final BookingChangeLog bookingChangeLog;
+    private final PlatformTransactionManager transactionManager;
 
     private final UserDto userDto2 = UserDto
             .builder()
@@ -95,6 +113,124 @@ public class BookingServiceTest {
                 exp.getMessage());
     }
 
+    @Test
+    @DisplayName("Bulk approval applies each decision and reports the rejected ones")
+    void shouldApplyBookingDecisionsInBatch() {
+        UserDto ownerDto = userService.create(userDto3);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto1);
+        UserDto newUserDto = userService.create(userDto2);
+        BookingDto first = bookingService.create(BookingInputDto.builder()
+                .itemId(newItemDto.getId())
+                .start(LocalDateTime.of(2030, 12, 25, 12, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 26, 12, 0, 0))
+                .build(), newUserDto.getId());
+        BookingDto overlapping = bookingService.create(BookingInputDto.builder()
+                .itemId(newItemDto.getId())
+                .start(LocalDateTime.of(2030, 12, 26, 0, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 27, 12, 0, 0))
+                .build(), newUserDto.getId());
+        BookingDto rejected = bookingService.create(BookingInputDto.builder()
+                .itemId(newItemDto.getId())
+                .start(LocalDateTime.of(2030, 12, 28, 12, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 29, 12, 0, 0))
+                .build(), newUserDto.getId());
+
+        List<BookingDecisionResultDto> results = bookingService.updateAll(ownerDto.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(first.getId(), false),
+                new BookingDecisionDto(999L, true),
+                new BookingDecisionDto(null, true)));
+
+        assertEquals(6, results.size());
+        assertEquals(Status.APPROVED, results.get(0).getBooking().getStatus());
+        assertFalse(results.get(1).getSuccess());
+        assertEquals(Status.REJECTED, results.get(2).getBooking().getStatus());
+        assertEquals("Решение по бронированию уже есть", results.get(3).getError());
+        assertEquals("Бронирование с id: 999 не найдено", results.get(4).getError());
+        assertEquals("Не указано бронирование", results.get(5).getError());
+        assertEquals(Status.WAITING, bookingService.getById(overlapping.getId(), ownerDto.getId()).getStatus());
+        assertEquals(Status.REJECTED, bookingService.getById(rejected.getId(), ownerDto.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Exception when bulk approval is empty or too large")
+    void shouldExceptionWhenBookingDecisionsEmptyOrTooMany() {
+        UserDto ownerDto = userService.create(userDto3);
+        List<BookingDecisionDto> decisions = LongStream.rangeClosed(1, 101)
+                .mapToObj(id -> new BookingDecisionDto(id, true))
+                .collect(Collectors.toList());
+
+        assertThrows(BookingCreateException.class, () -> bookingService.updateAll(ownerDto.getId(), List.of()));
+        assertThrows(BookingCreateException.class, () -> bookingService.updateAll(ownerDto.getId(), decisions));
+    }
+
+    @Test
+    @DisplayName("Approval moves the item's next booking pointer")
+    void shouldUpdateItemPointersWhenApproveBooking() {
+        UserDto ownerDto = userService.create(userDto3);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto1);
+        UserDto newUserDto = userService.create(userDto2);
+        BookingDto bookingDto = bookingService.create(BookingInputDto.builder()
+                .itemId(newItemDto.getId())
+                .start(LocalDateTime.of(2030, 12, 25, 12, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 26, 12, 0, 0))
+                .build(), newUserDto.getId());
+
+        assertTrue(bookingTimelineIndex.isReady());
+        bookingService.update(bookingDto.getId(), ownerDto.getId(), true);
+        ItemDto item = itemService.getById(newItemDto.getId(), ownerDto.getId());
+
+        assertNull(item.getLastBooking());
+        assertEquals(bookingDto.getId(), item.getNextBooking().getId());
+    }
+
+    @Test
+    @DisplayName("Hide uncommitted booking changes and reject limits out of range")
+    void shouldHideUncommittedChangesAndCheckLimit() {
+        UserDto ownerDto = userService.create(userDto3);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto1);
+        UserDto newUserDto = userService.create(userDto2);
+        bookingService.create(BookingInputDto.builder()
+                .itemId(newItemDto.getId())
+                .start(LocalDateTime.of(2030, 12, 25, 12, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 26, 12, 0, 0))
+                .build(), newUserDto.getId());
+
+        // the booking is written in the test's transaction, which has not committed yet; read from another one
+        TransactionTemplate reader = new TransactionTemplate(transactionManager);
+        reader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        BookingChangeBatch changes = reader.execute(status ->
+                bookingChangeLog.findByBooker(newUserDto.getId(), 0, 10));
+
+        assertEquals(List.of(), changes.getBookingIds());
+        assertThrows(InvalidChangesRequestException.class,
+                () -> bookingService.getChanges(newUserDto.getId(), null, 0));
+        assertThrows(InvalidChangesRequestException.class,
+                () -> bookingService.getChangesByOwner(ownerDto.getId(), null, 1001));
+    }
+
+    @Test
+    @DisplayName("Conflict when update with stale version")
+    void shouldConflictWhenUpdateWithStaleVersion() {
+        UserDto ownerDto = userService.create(userDto3);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto1);
+        UserDto newUserDto = userService.create(userDto2);
+        BookingDto bookingDto = bookingService.create(BookingInputDto.builder()
+                .itemId(newItemDto.getId())
+                .start(LocalDateTime.of(2030, 12, 25, 12, 0, 0))
+                .end(LocalDateTime.of(2030, 12, 26, 12, 0, 0))
+                .build(), newUserDto.getId());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.update(bookingDto.getId(),
+                ownerDto.getId(), true, bookingDto.getVersion() + 1));
+        BookingDto approved = bookingService.update(bookingDto.getId(), ownerDto.getId(), true,
+                bookingDto.getVersion());
+
+        assertEquals(Status.APPROVED, approved.getStatus());
+    }
+
     @Test
     @DisplayName("Cancel booking after update")
     void shouldCancelBookingAfterUpdate() {
@@ -14,7 +14,9 @@ import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.booking.BookingCreateException;
 import ru.practicum.shareit.exception.booking.BookingNotFoundException;
+import ru.practicum.shareit.exception.booking.BookingOverlapException;
 import ru.practicum.shareit.exception.booking.InvalidBookingException;
+import ru.practicum.shareit.exception.booking.InvalidCursorException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -23,10 +25,13 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.UtilGenerators.*;
 
@@ -144,7 +149,7 @@ public class BookingServiceUnitTest {
         BookingDto booking9 = createAndApproveBooking(itemDto.getId(), now.plusHours(17), now.plusHours(18),
                 bookerUser.getId(), ownerUser.getId(), true);
 
-        BookingDto booking10 = createAndApproveBooking(itemDto.getId(), now.plusMinutes(30), now.plusHours(20),
+        BookingDto booking10 = createAndApproveBooking(itemDto.getId(), now.plusMinutes(30), now.plusMinutes(50),
                 bookerUser.getId(), ownerUser.getId(), true);
 
         List<BookingDto> bookingDtoList = bookingService.getBookings(State.ALL.name(), bookerUser.getId(), 0, 10);
@@ -214,7 +219,7 @@ public class BookingServiceUnitTest {
         BookingDto booking9 = createAndApproveBooking(itemDto.getId(), now.plusHours(17), now.plusHours(18),
                 bookerUser.getId(), ownerUser.getId(), true);
 
-        BookingDto booking10 = createAndApproveBooking(itemDto.getId(), now.plusHours(1), now.plusHours(20),
+        BookingDto booking10 = createAndApproveBooking(itemDto.getId(), now.plusMinutes(30), now.plusMinutes(50),
                 bookerUser.getId(), ownerUser.getId(), true);
 
         List<BookingDto> bookingDtoList = bookingService.getBookingsByOwner(State.ALL.name(), ownerUser.getId(), 0, 10);
@@ -250,6 +255,67 @@ public class BookingServiceUnitTest {
 
     }
 
+    @Test
+    @DisplayName("Get bookings by cursor")
+    void testGetBookingsByCursor() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 5; i > 0; i--) {
+            expected.add(bookingService.create(generateBookingInputDto(itemDto.getId(), now.plusHours(i), now.plusHours(i + 1)),
+                    bookerUser.getId()).getId());
+        }
+        BookingDto sameStart = bookingService.create(generateBookingInputDto(itemDto.getId(), now.plusHours(3), now.plusHours(4)),
+                bookerUser.getId());
+        expected.add(2, sameStart.getId());
+
+        List<Long> bookerIds = new ArrayList<>();
+        List<Long> ownerIds = new ArrayList<>();
+        BookingCursor bookerCursor = null;
+        BookingCursor ownerCursor = null;
+        for (int page = 0; page < 3; page++) {
+            List<BookingDto> bookerPage = bookingService.getBookings(State.ALL.name(), bookerUser.getId(), bookerCursor, 2);
+            List<BookingDto> ownerPage = bookingService.getBookingsByOwner(State.FUTURE.name(), ownerUser.getId(), ownerCursor, 2);
+            assertEquals(2, bookerPage.size());
+            assertEquals(2, ownerPage.size());
+            bookerPage.forEach(booking -> bookerIds.add(booking.getId()));
+            ownerPage.forEach(booking -> ownerIds.add(booking.getId()));
+            bookerCursor = BookingCursor.decode(BookingCursor.of(bookerPage.get(1)).encode());
+            ownerCursor = BookingCursor.of(ownerPage.get(1));
+        }
+
+        assertEquals(expected, bookerIds);
+        assertEquals(expected, ownerIds);
+        assertEquals(0, bookingService.getBookings(State.ALL.name(), bookerUser.getId(), bookerCursor, 2).size());
+        assertEquals(List.of(expected.get(5)), bookingService.getBookings(State.ALL.name(), bookerUser.getId(), 5, 5)
+                .stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Exception when cursor is invalid")
+    void testExceptionWhenCursorIsInvalid() {
+        assertNull(BookingCursor.decode(""));
+        assertThrows(InvalidCursorException.class, () -> BookingCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> BookingCursor.decode("MTIz"));
+    }
+
+    @Test
+    @DisplayName("Reject bookings overlapping approved booking")
+    void testRejectBookingsOverlappingApprovedBooking() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto waiting = bookingService.create(generateBookingInputDto(itemDto.getId(), now.plusHours(2), now.plusHours(4)),
+                bookerUser.getId());
+        createAndApproveBooking(itemDto.getId(), now.plusHours(1), now.plusHours(3), bookerUser.getId(), ownerUser.getId(), true);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(
+                generateBookingInputDto(itemDto.getId(), now.plusHours(2), now.plusHours(5)), bookerUser.getId()));
+        assertThrows(BookingOverlapException.class, () -> bookingService.update(waiting.getId(), ownerUser.getId(), true));
+        assertEquals(Status.REJECTED, bookingService.update(waiting.getId(), ownerUser.getId(), false).getStatus());
+
+        BookingDto adjacent = createAndApproveBooking(itemDto.getId(), now.plusHours(3), now.plusHours(5),
+                bookerUser.getId(), ownerUser.getId(), true);
+        assertEquals(Status.APPROVED, adjacent.getStatus());
+    }
+
     private BookingDto createAndApproveBooking(long itemId, LocalDateTime start, LocalDateTime end, long bookerId, long ownerId, boolean approved) {
         BookingDto bookingDto = bookingService.create(new BookingInputDto(itemId, start, end), bookerId);
         return bookingService.update(bookingDto.getId(), ownerId, approved);
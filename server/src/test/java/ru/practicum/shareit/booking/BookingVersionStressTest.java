@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.booking.BookingConflictException;
+import ru.practicum.shareit.exception.booking.InvalidBookingException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Owner approvals race booker cancellations on the same bookings against a real database. Data is committed,
+ * so the users created here are deleted afterwards.
+ */
+@Slf4j
+@SpringBootTest
+public class BookingVersionStressTest {
+
+    private static final int THREADS = 8;
+    private static final int ITEMS = 4;
+    private static final int BOOKINGS = 60;
+    private static final LocalDateTime START = LocalDateTime.of(2031, 1, 1, 0, 0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(UserDto.builder().name("owner").email("stress-owner@mail.ru").build());
+        booker = userService.create(UserDto.builder().name("booker").email("stress-booker@mail.ru").build());
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.create(owner.getId(), ItemDto.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .build()).getId());
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = START.plusDays(i);
+            bookingIds.add(bookingService.create(new BookingInputDto(itemIds.get(i % ITEMS), start,
+                    start.plusHours(12)), booker.getId()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteById(booker.getId());
+        userService.deleteById(owner.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent approve and cancel never lose an update")
+    void testConcurrentApproveAndCancelNeverLoseAnUpdate() throws Exception {
+        AtomicIntegerArray applied = new AtomicIntegerArray(BOOKINGS);
+        AtomicIntegerArray canceled = new AtomicIntegerArray(BOOKINGS);
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long started;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS * 2; i++) {
+                int index = i / 2;
+                boolean approve = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.update(bookingIds.get(index),
+                                approve ? owner.getId() : booker.getId(), approve);
+                        applied.incrementAndGet(index);
+                        if (!approve) {
+                            canceled.incrementAndGet(index);
+                        }
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (InvalidBookingException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            started = System.nanoTime();
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        log.info("Гонка подтверждения и отмены: {} оп/с, конфликтов {} из {} ({}%), отклонено правилами {}",
+                Math.round(BOOKINGS * 2 / seconds), conflicts.get(), BOOKINGS * 2,
+                Math.round(conflicts.get() * 100.0 / (BOOKINGS * 2)), refused.get());
+        for (int i = 0; i < BOOKINGS; i++) {
+            BookingDto booking = bookingService.getById(bookingIds.get(i), owner.getId());
+            assertTrue(applied.get(i) > 0, "booking " + booking.getId() + " was never changed");
+            assertEquals(applied.get(i), booking.getVersion(), "lost update on booking " + booking.getId());
+            assertEquals(canceled.get(i) > 0 ? Status.CANCELED : Status.APPROVED, booking.getStatus());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSpecifications;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.pointer.ItemBookingPointer;
+import ru.practicum.shareit.item.pointer.PointerKind;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(BookingArchive.class)
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD,
+        scripts = {"/schema.sql"})
+public class BookingArchiveTest {
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Autowired
+    private BookingArchive bookingArchive;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@archive.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@archive.ru").build());
+        item = itemRepository.save(Item.builder().name("ItemName").description("description").available(true)
+                .ownerId(owner.getId()).build());
+    }
+
+    @Test
+    @DisplayName("Bookings past the horizon move to the archive, except item pointers")
+    void testArchiveMovesOldBookings() {
+        Booking old = save(NOW.minusDays(800), NOW.minusDays(799));
+        Booking pointed = save(NOW.minusDays(700), NOW.minusDays(699));
+        Booking recent = save(NOW.minusDays(10), NOW.minusDays(9));
+        entityManager.persist(ItemBookingPointer.builder().itemId(item.getId()).kind(PointerKind.LAST)
+                .bookingId(pointed.getId()).bookerId(booker.getId()).start(pointed.getStart())
+                .end(pointed.getEnd()).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, bookingArchive.archive(NOW));
+        entityManager.clear();
+
+        assertFalse(bookingRepository.existsById(old.getId()));
+        assertTrue(bookingRepository.existsById(pointed.getId()));
+        assertTrue(bookingRepository.existsById(recent.getId()));
+        ArchivedBooking archived = bookingArchiveRepository.findWithItemAndBookerById(old.getId()).orElseThrow();
+        assertEquals(old.getStart(), archived.getStart());
+        assertEquals(Status.APPROVED, archived.getStatus());
+        assertEquals(booker.getName(), archived.getBooker().getName());
+        assertEquals(old.getEnd(), bookingArchive.archivedBefore());
+    }
+
+    @Test
+    @DisplayName("PAST pages over hot and archived bookings match a single table")
+    void testPastPagesMergeArchive() {
+        for (int i = 0; i < 12; i++) {
+            save(NOW.minusDays(1000 - i * 60L), NOW.minusDays(990 - i * 60L));
+        }
+        entityManager.flush();
+        List<Long> expected = past();
+        entityManager.clear();
+
+        assertTrue(bookingArchive.archive(NOW) > 0);
+        entityManager.clear();
+
+        Specification<Booking> hot = Specification.where(BookingSpecifications.hasBooker(booker.getId()))
+                .and(BookingSpecifications.inState(State.PAST, NOW));
+        Specification<ArchivedBooking> archived = Specification.where(
+                        BookingSpecifications.hasArchivedBooker(booker.getId()))
+                .and(BookingSpecifications.inState(State.PAST, NOW));
+        List<Long> pages = new ArrayList<>();
+        for (int from = 0; from < 12; from += 5) {
+            pages.addAll(bookingArchive.withArchived(
+                            (offset, limit) -> bookingRepository.findAll(hot, SORT, offset, limit),
+                            (offset, limit) -> bookingArchiveRepository.findAll(archived, SORT, offset, limit),
+                            Booking::getStart, Booking::getId, from, 5)
+                    .stream()
+                    .map(Booking::getId)
+                    .collect(Collectors.toList()));
+        }
+
+        assertEquals(expected, pages);
+    }
+
+    private List<Long> past() {
+        return bookingRepository.findAll(Specification.where(BookingSpecifications.hasBooker(booker.getId()))
+                        .and(BookingSpecifications.inState(State.PAST, NOW)), SORT, 0, 100)
+                .stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+    }
+}
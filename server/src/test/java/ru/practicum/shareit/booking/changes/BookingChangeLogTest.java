@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.changes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class BookingChangeLogTest {
+
+    @Autowired
+    private BookingChangeLog changeLog;
+
+    @Autowired
+    private BookingChangeRepository repository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private TransactionTemplate reader;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        reader = new TransactionTemplate(transactionManager);
+        reader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        owner = userRepository.save(User.builder().name("owner").email("changes-owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("changes-booker@mail.ru").build());
+        item = Item.builder().id(1L).name("item").description("item").available(true).ownerId(owner.getId()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll(List.of(owner, booker));
+    }
+
+    @Test
+    @DisplayName("Changes become visible when their transaction commits")
+    void testChangesVisibleOnCommit() {
+        long before = changeLog.safeSequence();
+
+        transaction.executeWithoutResult(status -> {
+            changeLog.record(List.of(booking(1L), booking(2L)));
+            assertEquals(before, safeSequence(changeLog));
+        });
+
+        assertEquals(before + 2, changeLog.safeSequence());
+        assertEquals(List.of(1L, 2L), changeLog.findByBooker(booker.getId(), before, 10).getBookingIds());
+    }
+
+    @Test
+    @DisplayName("Rolled back changes stop holding back the safe sequence")
+    void testRolledBackChangesAreReleased() {
+        long before = changeLog.safeSequence();
+
+        transaction.executeWithoutResult(status -> {
+            changeLog.record(List.of(booking(1L)));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before + 1, changeLog.safeSequence());
+        assertEquals(List.of(), changeLog.findByBooker(booker.getId(), before, 10).getBookingIds());
+    }
+
+    @Test
+    @DisplayName("Logs of several servers share one sequence")
+    void testLogsShareSequence() {
+        BookingChangeLog other = new BookingChangeLog(repository, transactionManager, 300);
+        long before = changeLog.safeSequence();
+
+        transaction.executeWithoutResult(status -> {
+            changeLog.record(List.of(booking(1L)));
+            other.record(List.of(booking(2L)));
+            assertEquals(before, safeSequence(other));
+        });
+        other.record(List.of(booking(3L)));
+
+        assertEquals(before + 3, other.safeSequence());
+        assertEquals(List.of(1L, 2L, 3L), changeLog.findByOwner(owner.getId(), before, 10).getBookingIds());
+    }
+
+    @Test
+    @DisplayName("Pending numbers older than the timeout no longer hold readers back")
+    void testStalePendingNumbersAreIgnored() {
+        BookingChangeLog impatient = new BookingChangeLog(repository, transactionManager, 0);
+        long before = changeLog.safeSequence();
+
+        transaction.executeWithoutResult(status -> {
+            changeLog.record(List.of(booking(1L)));
+            assertEquals(before, safeSequence(changeLog));
+            assertEquals(before + 1, safeSequence(impatient));
+        });
+    }
+
+    @Test
+    @DisplayName("A short batch skips the token to the safe sequence, a full one stops at its last change")
+    void testBatchTokens() {
+        long before = changeLog.safeSequence();
+        changeLog.record(List.of(booking(5L), booking(1L)));
+        changeLog.record(List.of(booking(1L)));
+
+        BookingChangeBatch fullBatch = changeLog.findByBooker(booker.getId(), before, 2);
+        BookingChangeBatch shortBatch = changeLog.findByBooker(booker.getId(), fullBatch.getNext(), 5);
+
+        assertEquals(List.of(5L, 1L), fullBatch.getBookingIds());
+        assertEquals(before + 2, fullBatch.getNext());
+        assertEquals(List.of(1L), shortBatch.getBookingIds());
+        assertEquals(changeLog.safeSequence(), shortBatch.getNext());
+    }
+
+    @Test
+    @DisplayName("Tokens round-trip and an empty token starts from the beginning")
+    void testTokens() {
+        assertEquals(42, BookingChangeToken.decode(BookingChangeToken.encode(42)));
+        assertEquals(0, BookingChangeToken.decode(null));
+    }
+
+    /**
+     * Reads the way another request would, outside the transaction that writes the changes.
+     */
+    private long safeSequence(BookingChangeLog log) {
+        return reader.execute(status -> log.safeSequence());
+    }
+
+    private Booking booking(Long id) {
+        return Booking.builder().id(id).item(item).booker(booker).build();
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.idempotency.BookingIdempotency;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BookingController.class})
+public class BookingFeedTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final long OWNER = 1L;
+    private static final long BOOKER = 2L;
+    private static final long STRANGER = 3L;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private BookingIdempotency bookingIdempotency;
+
+    @Autowired
+    private BookingFeed bookingFeed;
+
+    @Autowired
+    private Queue<Runnable> sends;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Subscribers receive events of their bookings")
+    void testSubscribersReceiveEventsOfTheirBookings() throws Exception {
+        MvcResult owner = subscribe(OWNER, null);
+        MvcResult stranger = subscribe(STRANGER, null);
+
+        bookingFeed.onBookingChanged(changed(10L, Status.WAITING));
+        bookingFeed.onBookingChanged(changed(10L, Status.APPROVED));
+        assertEquals("", owner.getResponse().getContentAsString());
+        runSends();
+
+        String stream = owner.getResponse().getContentAsString();
+        assertEquals(List.of("created", "approved"), stream.lines()
+                .filter(line -> line.startsWith("event:"))
+                .map(line -> line.substring("event:".length()))
+                .collect(Collectors.toList()));
+        assertEquals("", stranger.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Subscriber resumes after the last event id")
+    void testSubscriberResumesAfterLastEventId() throws Exception {
+        bookingFeed.onBookingChanged(changed(20L, Status.WAITING));
+        long lastSeen = bookingFeed.eventsSince(BOOKER, 0).get(0).getId();
+        bookingFeed.onBookingChanged(changed(20L, Status.REJECTED));
+
+        MvcResult booker = subscribe(BOOKER, lastSeen);
+        runSends();
+
+        String stream = booker.getResponse().getContentAsString();
+        assertThat(stream, containsString("id:" + (lastSeen + 1)));
+        assertThat(stream, containsString("event:rejected"));
+        assertThat(stream, not(containsString("id:" + lastSeen + "\n")));
+    }
+
+    @Test
+    @DisplayName("Not found when subscriber is unknown")
+    void testUnknownSubscriber() throws Exception {
+        when(userRepository.existsById(STRANGER)).thenReturn(false);
+
+        mockMvc.perform(get("/bookings/events").header(HEADER, STRANGER))
+                .andExpect(status().isNotFound());
+    }
+
+    private void runSends() {
+        for (Runnable send = sends.poll(); send != null; send = sends.poll()) {
+            send.run();
+        }
+    }
+
+    private MvcResult subscribe(long userId, Long lastEventId) throws Exception {
+        return mockMvc.perform(lastEventId == null
+                        ? get("/bookings/events").header(HEADER, userId)
+                        : get("/bookings/events").header(HEADER, userId).header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    @TestConfiguration
+    static class FeedConfiguration {
+        private final Queue<Runnable> sends = new ConcurrentLinkedQueue<>();
+
+        @Bean
+        Queue<Runnable> sends() {
+            return sends;
+        }
+
+        @Bean
+        BookingFeed bookingFeed(UserRepository userRepository) {
+            return new BookingFeed(userRepository, 1000, 30, sends::add);
+        }
+    }
+
+    private static BookingChangedEvent changed(long bookingId, Status status) {
+        LocalDateTime now = LocalDateTime.now();
+        return new BookingChangedEvent(bookingId, 5L, OWNER, BOOKER, now.plusDays(1), now.plusDays(2), status, now);
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.exception.booking.BookingCreateException;
+import ru.practicum.shareit.exception.booking.IdempotencyKeyReuseException;
+import ru.practicum.shareit.exception.booking.InvalidIdempotencyKeyException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingIdempotencyTest {
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, Duration.ofHours(1));
+    private final BookingIdempotency bookingIdempotency =
+            new BookingIdempotency(store, TransactionOperations.withoutTransaction());
+
+    private final BookingInputDto input = BookingInputDto.builder()
+            .itemId(1L)
+            .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+            .end(LocalDateTime.of(2030, 1, 1, 13, 0))
+            .build();
+
+    private final BookingDto booking = BookingDto.builder()
+            .id(1L)
+            .start(input.getStart())
+            .end(input.getEnd())
+            .status(Status.WAITING)
+            .build();
+
+    @Test
+    @DisplayName("Replay stored result and keep keys per booker")
+    void testReplay() {
+        AtomicInteger calls = new AtomicInteger();
+
+        BookingDto first = bookingIdempotency.create(1L, "key", input, () -> count(calls, booking));
+        BookingDto replay = bookingIdempotency.create(1L, "key", input, () -> count(calls, booking));
+        bookingIdempotency.create(2L, "key", input, () -> count(calls, booking));
+
+        assertSame(first, replay);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Reject key reused for another request and invalid keys")
+    void testRejectKeyReuse() {
+        bookingIdempotency.create(1L, "key", input, () -> booking);
+        BookingInputDto other = BookingInputDto.builder()
+                .itemId(2L)
+                .start(input.getStart())
+                .end(input.getEnd())
+                .build();
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> bookingIdempotency.create(1L, "key", other, () -> booking));
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> bookingIdempotency.create(1L, " ", input, () -> booking));
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> bookingIdempotency.create(1L, "k".repeat(256), input, () -> booking));
+    }
+
+    @Test
+    @DisplayName("Do not store failed executions")
+    void testFailureNotStored() {
+        assertThrows(BookingCreateException.class, () -> bookingIdempotency.create(1L, "key", input, () -> {
+            throw new BookingCreateException("Время начала бронирования в прошлом");
+        }));
+
+        assertSame(booking, bookingIdempotency.create(1L, "key", input, () -> booking));
+    }
+
+    @Test
+    @DisplayName("Coalesce concurrent duplicates onto one execution")
+    void testConcurrentDuplicates() throws Exception {
+        int threads = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<BookingDto>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> bookingIdempotency.create(1L, "key", input, () -> {
+                    started.countDown();
+                    await(release);
+                    return count(calls, booking);
+                })));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<BookingDto> result : results) {
+                assertSame(booking, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Evict oldest and expired entries from memory store")
+    void testInMemoryBounds() throws InterruptedException {
+        InMemoryIdempotencyStore bounded = new InMemoryIdempotencyStore(2, Duration.ofHours(1));
+        IdempotentResponse response = new IdempotentResponse("fingerprint", booking);
+        bounded.put("a", response);
+        bounded.put("b", response);
+        bounded.put("c", response);
+
+        assertFalse(bounded.put("c", new IdempotentResponse("other", booking)));
+        assertEquals("fingerprint", bounded.find("c").orElseThrow().getFingerprint());
+        assertTrue(bounded.find("a").isEmpty());
+        assertTrue(bounded.find("c").isPresent());
+        assertEquals(2, bounded.size());
+
+        InMemoryIdempotencyStore expiring = new InMemoryIdempotencyStore(2, Duration.ofMillis(20));
+        expiring.put("a", response);
+        Thread.sleep(50);
+
+        assertTrue(expiring.find("a").isEmpty());
+        assertEquals(0, expiring.size());
+    }
+
+    private static BookingDto count(AtomicInteger calls, BookingDto booking) {
+        calls.incrementAndGet();
+        return booking;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
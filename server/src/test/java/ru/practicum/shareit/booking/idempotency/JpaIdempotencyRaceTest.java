@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two servers sharing the key table run the same request at once. Data is committed, so the users created here
+ * are deleted afterwards.
+ */
+@SpringBootTest
+public class JpaIdempotencyRaceTest {
+
+    @Autowired
+    private BookingIdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private BookingInputDto input;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(UserDto.builder().name("owner").email("race-owner@mail.ru").build());
+        booker = userService.create(UserDto.builder().name("booker").email("race-booker@mail.ru").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.of(2031, 1, 1, 12, 0);
+        input = new BookingInputDto(item.getId(), start, start.plusHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyRepository.deleteAll();
+        userService.deleteById(booker.getId());
+        userService.deleteById(owner.getId());
+    }
+
+    @Test
+    @DisplayName("Keep one booking when two servers store the same key at once")
+    void testConcurrentRequestsWithSameKey() throws Exception {
+        JpaIdempotencyStore store = new JpaIdempotencyStore(keyRepository, objectMapper, 60);
+        List<BookingIdempotency> servers = List.of(new BookingIdempotency(store, transactionOperations),
+                new BookingIdempotency(store, transactionOperations));
+        // both bookings are written before either server stores the key
+        CyclicBarrier written = new CyclicBarrier(servers.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(servers.size());
+        List<BookingDto> results;
+        try {
+            List<Future<BookingDto>> futures = servers.stream()
+                    .map(server -> executor.submit(() -> server.create(booker.getId(), "key", input,
+                            book(written))))
+                    .collect(Collectors.toList());
+            results = futures.stream()
+                    .map(future -> {
+                        try {
+                            return future.get(1, TimeUnit.MINUTES);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> bookingIds = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(input.getItemId()))
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        assertEquals(1, bookingIds.size());
+        assertEquals(bookingIds.get(0), results.get(0).getId());
+        assertEquals(bookingIds.get(0), results.get(1).getId());
+    }
+
+    private Supplier<BookingDto> book(CyclicBarrier written) {
+        return () -> {
+            Booking booking = bookingRepository.save(Booking.builder()
+                    .start(input.getStart())
+                    .end(input.getEnd())
+                    .item(itemRepository.getReferenceById(input.getItemId()))
+                    .booker(userRepository.getReferenceById(booker.getId()))
+                    .status(Status.WAITING)
+                    .build());
+            try {
+                written.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return BookingDto.builder().id(booking.getId()).start(booking.getStart()).end(booking.getEnd()).build();
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD,
+        scripts = {"/schema.sql"})
+public class JpaIdempotencyStoreTest {
+
+    @Autowired
+    private BookingIdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final BookingDto booking = BookingDto.builder()
+            .id(7L)
+            .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+            .end(LocalDateTime.of(2030, 1, 1, 13, 0))
+            .version(0L)
+            .status(Status.WAITING)
+            .build();
+
+    @Test
+    @DisplayName("Store and replay response from table")
+    void testStoreAndFind() {
+        JpaIdempotencyStore store = new JpaIdempotencyStore(repository, objectMapper, 60);
+        store.put("1:key", new IdempotentResponse("fingerprint", booking));
+
+        IdempotentResponse stored = store.find("1:key").orElseThrow();
+
+        assertEquals("fingerprint", stored.getFingerprint());
+        assertEquals(booking.getId(), stored.getBooking().getId());
+        assertEquals(booking.getStart(), stored.getBooking().getStart());
+        assertEquals(Status.WAITING, stored.getBooking().getStatus());
+        assertTrue(store.find("2:key").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Keep the response stored first")
+    void testKeepFirst() {
+        JpaIdempotencyStore store = new JpaIdempotencyStore(repository, objectMapper, 60);
+
+        assertTrue(store.put("1:key", new IdempotentResponse("fingerprint", booking)));
+        assertFalse(store.put("1:key", new IdempotentResponse("other", booking)));
+        assertEquals("fingerprint", repository.findById("1:key").orElseThrow().getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Skip and purge expired responses")
+    void testExpired() {
+        JpaIdempotencyStore store = new JpaIdempotencyStore(repository, objectMapper, 0);
+        store.put("1:key", new IdempotentResponse("fingerprint", booking));
+
+        assertTrue(store.find("1:key").isEmpty());
+        assertEquals(1, repository.deleteAllCreatedBefore(LocalDateTime.now()));
+    }
+}
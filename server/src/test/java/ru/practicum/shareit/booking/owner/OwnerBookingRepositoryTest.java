@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.owner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSpecifications;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(OwnerBookingProjection.class)
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD,
+        scripts = {"/schema.sql"})
+public class OwnerBookingRepositoryTest {
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private OwnerBookingRepository ownerBookingRepository;
+
+    @Autowired
+    private OwnerBookingProjection ownerBookingProjection;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@view.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@view.ru").build());
+        item = itemRepository.save(Item.builder().name("ItemName").description("description").available(true)
+                .ownerId(owner.getId()).build());
+    }
+
+    @Test
+    @DisplayName("Owner listings from the view match the join over bookings")
+    void testFindMatchesBookings() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 10, 12, 0);
+        for (int i = 0; i < 12; i++) {
+            Booking booking = save(now.plusDays(i - 6), now.plusDays(i - 5),
+                    i % 3 == 0 ? Status.REJECTED : Status.APPROVED);
+            ownerBookingProjection.add(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (State state : List.of(State.ALL, State.CURRENT, State.PAST, State.FUTURE, State.REJECTED)) {
+            List<Long> expected = bookingRepository.findAll(Specification.where(
+                            BookingSpecifications.hasItemOwner(owner.getId()))
+                            .and(BookingSpecifications.inState(state, now)), SORT, 1, 5)
+                    .stream()
+                    .map(Booking::getId)
+                    .collect(Collectors.toList());
+            Specification<OwnerBooking> specification = Specification.where(
+                    BookingSpecifications.hasOwner(owner.getId()))
+                    .and(BookingSpecifications.inState(state, now));
+
+            List<Booking> bookings = ownerBookingRepository.findBookings(specification, SORT, 1, 5);
+            List<BookingCompactDto> compact = ownerBookingRepository.findAllCompact(specification, SORT, 1, 5);
+
+            assertEquals(expected, bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+            assertEquals(expected, compact.stream().map(BookingCompactDto::getId).collect(Collectors.toList()));
+        }
+        Booking first = ownerBookingRepository.findBookings(BookingSpecifications.hasOwner(owner.getId()), SORT,
+                0, 1).get(0);
+        assertEquals(booker.getName(), first.getBooker().getName());
+        assertEquals(item.getName(), first.getItem().getName());
+    }
+
+    @Test
+    @DisplayName("Status updates, item renames and rebuild keep the view in sync")
+    void testProjectionUpdatesAndRebuild() {
+        Booking booking = save(LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 2, 12, 0),
+                Status.WAITING);
+        ownerBookingProjection.add(booking);
+        booking.setStatus(Status.APPROVED);
+        ownerBookingProjection.updateStatus(List.of(booking));
+        ownerBookingProjection.renameItem(item.getId(), "NewName");
+        save(LocalDateTime.of(2025, 2, 1, 12, 0), LocalDateTime.of(2025, 2, 2, 12, 0), Status.WAITING);
+        entityManager.clear();
+
+        OwnerBooking row = ownerBookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Status.APPROVED, row.getStatus());
+        assertEquals("NewName", row.getItemName());
+        assertEquals(1, ownerBookingRepository.count());
+
+        assertEquals(2, ownerBookingProjection.rebuild());
+        entityManager.clear();
+
+        assertEquals(2, ownerBookingRepository.count());
+        OwnerBooking rebuilt = ownerBookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(owner.getId(), rebuilt.getOwnerId());
+        assertEquals(booker.getId(), rebuilt.getBookerId());
+        assertEquals(Status.APPROVED, rebuilt.getStatus());
+        assertEquals(booking.getStart(), rebuilt.getStart());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.changes.BookingChangeLog;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingTransitionSchedulerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+
+    @Mock
+    private OwnerBookingProjection ownerBookingProjection;
+
+    @Mock
+    private BookingSummaryCounters bookingSummaryCounters;
+
+    @Mock
+    private BookingChangeLog bookingChangeLog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingTransitionScheduler scheduler;
+
+    private final User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+
+    private final User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+
+    private final Item item = Item.builder().id(1L).name("item").description("item").available(true)
+            .ownerId(owner.getId()).build();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingTransitionScheduler(bookingRepository, itemBookingPointers,
+                ownerBookingProjection, bookingSummaryCounters, bookingChangeLog, eventPublisher, transactionManager,
+                60 * 60 * 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    @DisplayName("Expire stale waiting and start approved bookings loaded at startup")
+    void testApplyTransitionsLoadedAtStartup() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking stale = booking(1L, now.minusHours(2), now.plusHours(1), Status.WAITING);
+        Booking started = booking(2L, now.minusHours(3), now.plusDays(1), Status.APPROVED);
+        Booking future = booking(3L, now.plusDays(2), now.plusDays(3), Status.WAITING);
+        when(bookingRepository.findPendingTransitions(eq(Status.WAITING), eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(TimelineEntry.of(stale), TimelineEntry.of(started), TimelineEntry.of(future)));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(anyCollection()))
+                .thenReturn(List.of(stale, started));
+
+        scheduler.start();
+        scheduler.tick();
+
+        assertEquals(Status.EXPIRED, stale.getStatus());
+        assertEquals(Status.WAITING, future.getStatus());
+        verify(bookingRepository).saveAll(List.of(stale));
+        verify(itemBookingPointers).refresh(Set.of(item.getId()));
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        BookingChangedEvent changed = (BookingChangedEvent) events.getAllValues().get(0);
+        assertEquals(stale.getId(), changed.getBookingId());
+        assertEquals(Status.EXPIRED, changed.getStatus());
+        assertEquals(TransitionType.EXPIRED, ((BookingTransitionEvent) events.getAllValues().get(1)).getType());
+        BookingTransitionEvent startedEvent = (BookingTransitionEvent) events.getAllValues().get(2);
+        assertEquals(TransitionType.STARTED, startedEvent.getType());
+        assertEquals(started.getId(), startedEvent.getBookingId());
+
+        scheduler.tick();
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Skip transitions of bookings that changed status")
+    void testSkipTransitionsOfChangedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = booking(1L, now.minusHours(2), now.plusHours(1), Status.WAITING);
+        when(bookingRepository.findPendingTransitions(eq(Status.WAITING), eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        scheduler.start();
+        scheduler.schedule(booking);
+
+        booking.setStatus(Status.REJECTED);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(anyCollection()))
+                .thenReturn(List.of(booking));
+        scheduler.tick();
+
+        assertEquals(Status.REJECTED, booking.getStatus());
+        verify(bookingRepository).saveAll(List.of());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Retry a failed batch on the next tick")
+    void testRetryFailedBatchOnNextTick() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findPendingTransitions(eq(Status.WAITING), eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        scheduler.start();
+        scheduler.schedule(booking(1L, now.minusHours(2), now.plusHours(1), Status.WAITING));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(anyCollection()))
+                .thenAnswer(invocation -> List.of(booking(1L, now.minusHours(2), now.plusHours(1), Status.WAITING)));
+        when(bookingRepository.saveAll(anyList()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L))
+                .thenReturn(List.of());
+
+        scheduler.tick();
+        verify(bookingRepository, times(2)).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+
+        scheduler.tick();
+        verify(bookingRepository, times(3)).saveAll(anyList());
+        verify(eventPublisher).publishEvent(any(BookingChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(BookingTransitionEvent.class));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    @DisplayName("Fire entries once, not before deadline and at most one tick late")
+    void testFireEntriesOnceOnTime() {
+        Random random = new Random(7);
+        long start = 1_700_000_000_123L;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, 3, start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long deadline = start - 10_000 + (long) (random.nextDouble() * 64L * 64 * 64 * TICK * 3);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+        assertEquals(5000, wheel.size());
+
+        Map<Integer, Long> fired = new HashMap<>();
+        long now = start;
+        while (fired.size() < deadlines.size()) {
+            now += 1 + random.nextInt((int) TICK * 90);
+            for (Integer value : wheel.advance(now)) {
+                assertNull(fired.put(value, now), "fired twice: " + value);
+            }
+            if (random.nextInt(20) == 0) {
+                int value = deadlines.size();
+                long deadline = now + random.nextInt((int) TICK * 64 * 64 * 2);
+                deadlines.put(value, deadline);
+                wheel.schedule(value, deadline);
+            }
+        }
+
+        for (Map.Entry<Integer, Long> entry : fired.entrySet()) {
+            long deadline = deadlines.get(entry.getKey());
+            assertTrue(entry.getValue() >= deadline, "fired early: " + entry.getKey());
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Fire every entry within one tick when advanced tick by tick")
+    void testFireWithinOneTick() {
+        long start = 0;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 4, start);
+        long[] deadlines = {1, TICK, TICK + 1, 64 * TICK, 64 * TICK + 1, 4097 * TICK + 500, 300_000 * TICK};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        int firedCount = 0;
+        for (long now = start; firedCount < deadlines.length; now += TICK) {
+            List<Long> fired = wheel.advance(now);
+            for (Long deadline : fired) {
+                assertTrue(now >= deadline && now - deadline < TICK, "deadline " + deadline + " fired at " + now);
+            }
+            firedCount += fired.size();
+        }
+    }
+}
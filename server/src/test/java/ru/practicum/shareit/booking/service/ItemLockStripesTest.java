@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ItemLockStripesTest {
+
+    private final ItemLockStripes stripes = new ItemLockStripes(8);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Lock taken in a transaction is held until it completes")
+    void testLockTakenInTransactionIsHeldUntilItCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(1, stripes.withLock(1L, () -> 1));
+
+        CompletableFuture<Integer> waiting = CompletableFuture.supplyAsync(() -> stripes.withLock(1L, () -> 2));
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+
+        complete();
+        assertEquals(2, waiting.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Items locked until completion are released with the transaction")
+    void testItemsLockedUntilCompletionAreReleasedWithTransaction() throws Exception {
+        assertThrows(IllegalStateException.class, () -> stripes.lockUntilCompletion(Set.of(1L)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        stripes.lockUntilCompletion(Set.of(1L, 2L, 3L));
+        assertEquals(1, stripes.withLock(2L, () -> 1));
+
+        CompletableFuture<Integer> waiting = CompletableFuture.supplyAsync(() -> stripes.withLock(3L, () -> 2));
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+
+        complete();
+        assertEquals(2, waiting.get(10, TimeUnit.SECONDS));
+    }
+
+    private static void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(
+                TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingSummaryCountersTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingSummaryCounters counters;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        counters = new BookingSummaryCounters(bookingRepository);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Count by state for booker and owner and follow the clock")
+    void testCountsFollowWritesAndClock() {
+        when(bookingRepository.findTimelineEntries(anyCollection()))
+                .thenReturn(List.of(
+                        new TimelineEntry(1L, 1L, 1L, 2L, now.minusDays(2), now.minusDays(1), Status.APPROVED),
+                        new TimelineEntry(2L, 1L, 1L, 2L, now.minusHours(1), now.plusHours(1), Status.WAITING),
+                        new TimelineEntry(3L, 1L, 1L, 2L, now.plusDays(1), now.plusDays(2), Status.REJECTED),
+                        new TimelineEntry(4L, 5L, 3L, 1L, now.plusDays(1), now.plusDays(2), Status.WAITING)));
+        counters.rebuild();
+
+        assertEquals(new BookingSummaryDto(3, 1, 1, 1, 1, 1), counters.getBookerSummary(2L));
+        assertEquals(new BookingSummaryDto(3, 1, 1, 1, 1, 1), counters.getOwnerSummary(1L));
+        assertEquals(new BookingSummaryDto(1, 0, 0, 1, 1, 0), counters.getBookerSummary(1L));
+        assertEquals(new BookingSummaryDto(), counters.getOwnerSummary(2L));
+
+        counters.put(booking(2L, 1L, 1L, 2L, now.minusHours(1), now.plusHours(1), Status.APPROVED));
+        assertEquals(new BookingSummaryDto(3, 1, 1, 1, 0, 1), counters.getBookerSummary(2L));
+
+        counters.advance(now.plusDays(3));
+        assertEquals(new BookingSummaryDto(3, 0, 3, 0, 0, 1), counters.getOwnerSummary(1L));
+        assertEquals(new BookingSummaryDto(1, 0, 1, 0, 1, 0), counters.getOwnerSummary(3L));
+
+        counters.removeUser(2L);
+        assertEquals(new BookingSummaryDto(), counters.getOwnerSummary(1L));
+        assertEquals(new BookingSummaryDto(1, 0, 1, 0, 1, 0), counters.getBookerSummary(1L));
+    }
+
+    @Test
+    @DisplayName("Counters match counting the bookings at the clock")
+    void testMatchesBruteForce() {
+        when(bookingRepository.findTimelineEntries(anyCollection())).thenReturn(List.of());
+        counters.rebuild();
+        Random random = new Random(18);
+        Map<Long, TimelineEntry> bookings = new HashMap<>();
+        LocalDateTime clock = now;
+        Status[] statuses = Status.values();
+
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            if (action < 7) {
+                long id = random.nextInt(300) + 1;
+                TimelineEntry previous = bookings.get(id);
+                LocalDateTime start = previous != null ? previous.getStart()
+                        : clock.plusMinutes(random.nextInt(600) - 300);
+                LocalDateTime end = previous != null ? previous.getEnd() : start.plusMinutes(random.nextInt(120) + 1);
+                long bookerId = previous != null ? previous.getBookerId() : random.nextInt(5) + 1;
+                long ownerId = previous != null ? previous.getItemOwnerId() : random.nextInt(5) + 6;
+                TimelineEntry entry = new TimelineEntry(id, ownerId * 10, ownerId, bookerId, start, end,
+                        statuses[random.nextInt(statuses.length)]);
+                bookings.put(id, entry);
+                counters.put(booking(id, entry.getItemId(), ownerId, bookerId, start, end, entry.getStatus()));
+            } else {
+                clock = clock.plusMinutes(random.nextInt(30) + 1);
+                counters.advance(clock);
+            }
+            if (step % 100 == 0) {
+                for (long userId = 1; userId <= 10; userId++) {
+                    long user = userId;
+                    assertEquals(count(bookings, clock, entry -> entry.getBookerId() == user),
+                            counters.getBookerSummary(userId));
+                    assertEquals(count(bookings, clock, entry -> entry.getItemOwnerId() == user),
+                            counters.getOwnerSummary(userId));
+                }
+            }
+        }
+    }
+
+    private static BookingSummaryDto count(Map<Long, TimelineEntry> bookings, LocalDateTime now,
+                                           Predicate<TimelineEntry> role) {
+        List<TimelineEntry> entries = new ArrayList<>();
+        bookings.values().stream().filter(role).forEach(entries::add);
+        return new BookingSummaryDto(entries.size(),
+                entries.stream().filter(e -> e.getStart().isBefore(now) && e.getEnd().isAfter(now)).count(),
+                entries.stream().filter(e -> e.getEnd().isBefore(now)).count(),
+                entries.stream().filter(e -> e.getStart().isAfter(now)).count(),
+                entries.stream().filter(e -> e.getStatus() == Status.WAITING).count(),
+                entries.stream().filter(e -> e.getStatus() == Status.REJECTED).count());
+    }
+
+    private static Booking booking(Long id, Long itemId, Long ownerId, Long bookerId,
+                                   LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .item(Item.builder().id(itemId).ownerId(ownerId).build())
+                .booker(User.builder().id(bookerId).build())
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingTimelineIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingTimelineIndex index;
+
+    private final User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+
+    private final User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+
+    private final Item item = Item.builder().id(1L).name("item").description("item").available(true)
+            .ownerId(owner.getId()).build();
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingTimelineIndex(bookingRepository);
+    }
+
+    @Test
+    @DisplayName("Rebuild from repository")
+    void testRebuildFromRepository() {
+        when(bookingRepository.findTimelineEntries(anyCollection()))
+                .thenReturn(List.of(
+                        new TimelineEntry(1L, 1L, 1L, 2L, NOW.minusDays(2), NOW.minusDays(1), Status.APPROVED),
+                        new TimelineEntry(2L, 1L, 1L, 2L, NOW.plusDays(1), NOW.plusDays(2), Status.APPROVED)));
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(1L, index.findLast(1L, NOW).orElseThrow().getBookingId());
+        assertEquals(2L, index.findNext(1L, NOW).orElseThrow().getBookingId());
+        assertTrue(index.findLast(2L, NOW).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Put, update and remove bookings")
+    void testPutUpdateAndRemoveBookings() {
+        Booking booking = booking(1L, NOW.plusDays(1), NOW.plusDays(2), Status.WAITING);
+        index.put(booking);
+
+        assertTrue(index.findNext(item.getId(), NOW).isEmpty());
+        assertEquals(1L, index.findOverlap(item.getId(), Status.WAITING, NOW, NOW.plusDays(3)).orElseThrow().getBookingId());
+
+        booking.setStatus(Status.APPROVED);
+        index.put(booking);
+
+        assertEquals(1L, index.findNext(item.getId(), NOW).orElseThrow().getBookingId());
+        assertTrue(index.findOverlap(item.getId(), Status.WAITING, NOW, NOW.plusDays(3)).isEmpty());
+        assertTrue(index.findOverlap(item.getId(), Status.APPROVED, NOW.plusDays(2), NOW.plusDays(3)).isEmpty());
+
+        booking.setStatus(Status.CANCELED);
+        index.put(booking);
+        assertTrue(index.findNext(item.getId(), NOW).isEmpty());
+
+        index.put(booking(2L, NOW.minusDays(2), NOW.minusDays(1), Status.APPROVED));
+        index.removeUser(booker.getId());
+        assertTrue(index.findLast(item.getId(), NOW).isEmpty());
+
+        index.put(booking(3L, NOW.minusDays(2), NOW.minusDays(1), Status.APPROVED));
+        index.removeItem(item.getId());
+        assertTrue(index.findLast(item.getId(), NOW).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lookups match brute force")
+    void testLookupsMatchBruteForce() {
+        Random random = new Random(42);
+        List<TimelineEntry> approved = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            LocalDateTime start = NOW.plusHours(random.nextInt(2000) - 1000);
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            Booking booking = booking(id, start, end, Status.APPROVED);
+            index.put(booking);
+            approved.add(TimelineEntry.of(booking));
+        }
+        for (int i = 0; i < 100; i++) {
+            TimelineEntry removed = approved.remove(random.nextInt(approved.size()));
+            index.put(booking(removed.getBookingId(), removed.getStart(), removed.getEnd(), Status.REJECTED));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime now = NOW.plusHours(random.nextInt(2400) - 1200);
+            LocalDateTime end = now.plusHours(random.nextInt(24));
+
+            TimelineEntry expectedLast = approved.stream()
+                    .filter(entry -> entry.getStart().isBefore(now))
+                    .max(TimelineEntry.BY_END)
+                    .orElse(null);
+            TimelineEntry expectedNext = approved.stream()
+                    .filter(entry -> entry.getStart().isAfter(now))
+                    .min(TimelineEntry.BY_START)
+                    .orElse(null);
+            boolean expectedOverlap = approved.stream()
+                    .anyMatch(entry -> entry.getStart().isBefore(end) && entry.getEnd().isAfter(now));
+
+            assertEquals(expectedLast, index.findLast(item.getId(), now).orElse(null));
+            assertEquals(expectedNext, index.findNext(item.getId(), now).orElse(null));
+            assertEquals(expectedOverlap, index.findOverlap(item.getId(), Status.APPROVED, now, end).isPresent());
+        }
+        assertEquals(approved.stream().max(Comparator.comparing(TimelineEntry::getEnd)).orElseThrow().getEnd(),
+                index.findLast(item.getId(), NOW.plusYears(1)).orElseThrow().getEnd());
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionHooksTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Undos run newest first on rollback only")
+    void testUndosRunNewestFirstOnRollbackOnly() {
+        List<Integer> undone = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.onRollback(() -> undone.add(1));
+        TransactionHooks.onRollback(() -> undone.add(2));
+        TransactionHooks.onRollback(() -> undone.add(3));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(List.of(3, 2, 1), undone);
+
+        undone.clear();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.onRollback(() -> undone.add(1));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(List.of(), undone);
+
+        TransactionHooks.onRollback(() -> undone.add(1));
+        assertEquals(List.of(), undone);
+    }
+
+    @Test
+    @DisplayName("After completion waits for the transaction")
+    void testAfterCompletionWaitsForTransaction() {
+        List<Integer> completed = new ArrayList<>();
+        assertFalse(TransactionHooks.afterCompletion(() -> completed.add(1)));
+        assertEquals(List.of(), completed);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(TransactionHooks.afterCompletion(() -> completed.add(2)));
+        assertEquals(List.of(), completed);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(List.of(2), completed);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -11,7 +11,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.item.ItemNotAvailableException;
 import ru.practicum.shareit.exception.item.ItemNotDescriptionException;
 import ru.practicum.shareit.exception.item.ItemNotNameException;
+import ru.practicum.shareit.item.availability.Granularity;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -252,10 +255,29 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable()), Boolean.class));
     }
 
+    @Test
+    @DisplayName("Get item name suggestions")
+    void testGetSuggestions() throws Exception {
+        when(itemService.getSuggestions("дре", 5))
+                .thenReturn(List.of("Дрель", "Дрезина"));
+
+        mockMvc.perform(get("/items/search/suggest")
+                        .header(HEADER, 1)
+                        .param("prefix", "дре")
+                        .param("limit", "5")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$.[0]", is("Дрель")))
+                .andExpect(jsonPath("$.[1]", is("Дрезина")));
+    }
+
     @Test
     @DisplayName("Get items by search")
     void testGetItemsBySearch() throws Exception {
-        when(itemService.getItemsBySearch(anyString(), anyInt(), anyInt()))
+        when(itemService.getItemsBySearch(anyString(), anyInt(), anyInt(), anyString(), anyBoolean()))
                 .thenReturn(List.of(itemDto));
 
         mockMvc.perform(get("/items/search")
@@ -296,6 +318,32 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.created", is(commentDto.getCreated().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
     }
 
+    @Test
+    @DisplayName("Get item availability")
+    void testGetItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .granularity(Granularity.DAY)
+                .free(List.of(new AvailabilityIntervalDto(from.plusDays(1), to)))
+                .busy(List.of(new AvailabilityIntervalDto(from, from.plusDays(1))))
+                .build();
+        when(itemService.getAvailability(1L, from, to, "day"))
+                .thenReturn(availability);
+
+        mockMvc.perform(get("/items/1/availability")
+                        .header(HEADER, 1)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("granularity", "day")
+                        .accept(MediaType.APPLICATION_JSON))
 
-
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity", is("DAY")))
+                .andExpect(jsonPath("$.busy[0].start", is(from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
+                .andExpect(jsonPath("$.free[0].end", is(to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
+    }
 }
@@ -72,6 +72,25 @@ public class ItemRepositoryTest {
         assertEquals(item.getOwnerId(), items.get(0).getOwnerId());
     }
 
+    @Test
+    @DisplayName("Find item ids by search with offset")
+    void testFindIdsBySearchWithOffset() {
+        for (int i = 0; i < 4; i++) {
+            itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("description")
+                    .available(i != 1)
+                    .ownerId(user.getId())
+                    .build());
+        }
+
+        List<Long> all = itemRepository.findIdsBySearch("дрель", 10, 0);
+
+        assertEquals(3, all.size());
+        assertEquals(all.subList(1, 3), itemRepository.findIdsBySearch("дрель", 10, 1));
+        assertEquals(all.subList(1, 2), itemRepository.findIdsBySearch("дрель", 1, 1));
+    }
+
     @Test
     @DisplayName("Find by request id")
     void testFindByRequestId() {
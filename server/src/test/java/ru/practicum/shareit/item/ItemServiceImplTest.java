@@ -8,17 +8,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.owner.OwnerBookingProjection;
+import ru.practicum.shareit.booking.ItemBookingView;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.exception.item.InvalidAvailabilityRequestException;
+import ru.practicum.shareit.exception.item.InvalidSearchRequestException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.pointer.ItemBookingPointer;
+import ru.practicum.shareit.item.pointer.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.pointer.PointerKind;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.item.search.ItemSearchHit;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.User;
@@ -27,9 +41,11 @@ import ru.practicum.shareit.user.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 
@@ -52,6 +68,27 @@ public class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private BookingTimelineIndex bookingTimelineIndex;
+
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Mock
+    private ItemBookingPointerRepository itemBookingPointerRepository;
+
+    @Mock
+    private OwnerBookingProjection ownerBookingProjection;
+
+    @Mock
+    private ItemSearchBackend itemSearchBackend;
+
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private final User user = User
             .builder()
             .id(1L)
@@ -92,7 +129,10 @@ public class ItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository);
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
+                new ItemAvailabilityCache(bookingRepository, 100), itemAvailabilityIndex,
+                new ItemBookingPointers(itemBookingPointerRepository, bookingRepository, bookingTimelineIndex),
+                ownerBookingProjection, itemSearchBackend, itemNameSuggester, eventPublisher);
     }
 
     @Test
@@ -118,12 +158,73 @@ public class ItemServiceImplTest {
 
         assertEquals(1, itemService.getAll(user.getId(), FROM, SIZE).size());
 
-        when(bookingRepository.findFirstByItem_IdAndStatusAndStartBeforeOrderByEndDesc(anyLong(), any(Status.class), any(LocalDateTime.class)))
-                .thenReturn(booking);
-        when(bookingRepository.findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(anyLong(), any(Status.class), any(LocalDateTime.class)))
-                .thenReturn(booking);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemBookingPointerRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(ItemBookingPointer.builder()
+                        .itemId(item.getId())
+                        .kind(PointerKind.NEXT)
+                        .bookingId(booking.getId())
+                        .bookerId(user.getId())
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .build()));
 
-        assertEquals(1, itemService.getAll(user.getId(), FROM, SIZE).size());
+        List<ItemDto> items = itemService.getAll(user.getId(), FROM, SIZE);
+        assertEquals(1, items.size());
+        assertNull(items.get(0).getLastBooking());
+        assertEquals(booking.getId(), items.get(0).getNextBooking().getId());
+    }
+
+    @Test
+    @DisplayName("Recompute started next booking")
+    void testRecomputeStartedNextBooking() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        PageRequest pageRequest = PageRequest.of(FROM / SIZE, SIZE, sort);
+        when(itemRepository.findByOwnerId(user.getId(), pageRequest))
+                .thenReturn(List.of(item));
+
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        when(itemBookingPointerRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(ItemBookingPointer.builder()
+                        .itemId(item.getId())
+                        .kind(PointerKind.NEXT)
+                        .bookingId(booking.getId())
+                        .bookerId(user.getId())
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .build()));
+        ItemBookingView lastBooking = new ItemBookingView() {
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return user.getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return start.plusDays(1);
+            }
+        };
+        when(bookingRepository.findLastAndNextApproved(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+
+        List<ItemDto> items = itemService.getAll(user.getId(), FROM, SIZE);
+        assertEquals(booking.getId(), items.get(0).getLastBooking().getId());
+        assertNull(items.get(0).getNextBooking());
     }
 
     @Test
@@ -149,6 +250,48 @@ public class ItemServiceImplTest {
     @Test
     @DisplayName("Return empty list of item by searching blank text")
     void testReturnEmptyListOfItemsBySearchingBlankText() {
-        assertEquals(List.of(), itemService.getItemsBySearch("   ", FROM, SIZE));
+        assertEquals(List.of(), itemService.getItemsBySearch("   ", FROM, SIZE, "id", false));
+    }
+
+    @Test
+    @DisplayName("Keep search backend order of items")
+    void testKeepSearchBackendOrderOfItems() {
+        Item other = Item.builder().id(2L).name("other item").description("item").ownerId(user.getId())
+                .available(true).build();
+        when(itemSearchBackend.search("item", FROM, SIZE))
+                .thenReturn(List.of(2L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(item, other));
+        List<ItemDto> items = itemService.getItemsBySearch("Item", FROM, SIZE, "id", true);
+        assertEquals(List.of(2L, 1L), items.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertNull(items.get(0).getScore());
+    }
+
+    @Test
+    @DisplayName("Return relevance scores only when asked")
+    void testReturnRelevanceScoresOnlyWhenAsked() {
+        when(itemSearchBackend.searchByRelevance("item", FROM, SIZE))
+                .thenReturn(List.of(new ItemSearchHit(1L, 2.5)));
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(item));
+        assertEquals(2.5, itemService.getItemsBySearch("item", FROM, SIZE, "RELEVANCE", true).get(0).getScore());
+        assertNull(itemService.getItemsBySearch("item", FROM, SIZE, "relevance", false).get(0).getScore());
+    }
+
+    @Test
+    @DisplayName("Exception when search with unknown sort")
+    void testExceptionWhenSearchWithUnknownSort() {
+        assertThrows(InvalidSearchRequestException.class,
+                () -> itemService.getItemsBySearch("item", FROM, SIZE, "name", false));
+    }
+
+    @Test
+    @DisplayName("Exception when get availability with unknown granularity or empty period")
+    void testExceptionWhenGetAvailabilityWithWrongParameters() {
+        LocalDateTime from = LocalDateTime.now();
+        assertThrows(InvalidAvailabilityRequestException.class,
+                () -> itemService.getAvailability(item.getId(), from, from.plusDays(1), "week"));
+        assertThrows(InvalidAvailabilityRequestException.class,
+                () -> itemService.getAvailability(item.getId(), from, from, "day"));
     }
 }
@@ -6,15 +6,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.comment.CommentCreateException;
+import ru.practicum.shareit.exception.item.InvalidAvailabilityRequestException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
+import ru.practicum.shareit.item.availability.Granularity;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -28,6 +35,7 @@ public class ItemServiceTest {
 
     private final ItemService itemService;
     private final UserService userService;
+    private final BookingService bookingService;
 
     private final UserDto userDto = UserDto
             .builder()
@@ -202,11 +210,129 @@ public class ItemServiceTest {
         itemService.create(ownerDto.getId(), itemDto);
         itemService.create(ownerDto.getId(), itemDto1);
 
-        List<ItemDto> listItems = itemService.getItemsBySearch("itemDto", 0, 1);
+        List<ItemDto> listItems = itemService.getItemsBySearch("itemDto", 0, 1, "id", false);
 
         assertEquals(1, listItems.size());
     }
 
+    @Test
+    @DisplayName("Rank items by relevance with the default search backend")
+    void testRankItemsByRelevanceWithDefaultBackend() {
+        UserDto ownerDto = userService.create(userDto1);
+        ItemDto accessory = itemService.create(ownerDto.getId(), ItemDto.builder()
+                .name("Бур")
+                .description("Для перфоратора")
+                .available(true)
+                .build());
+        ItemDto tool = itemService.create(ownerDto.getId(), ItemDto.builder()
+                .name("Перфоратор")
+                .description("Мощный перфоратор")
+                .available(true)
+                .build());
+
+        List<ItemDto> byId = itemService.getItemsBySearch("перфоратор", 0, 10, "id", true);
+        List<ItemDto> byRelevance = itemService.getItemsBySearch("перфоратор", 0, 10, "relevance", true);
+
+        assertEquals(List.of(accessory.getId(), tool.getId()), List.of(byId.get(0).getId(), byId.get(1).getId()));
+        assertEquals(List.of(tool.getId(), accessory.getId()),
+                List.of(byRelevance.get(0).getId(), byRelevance.get(1).getId()));
+        assertTrue(byRelevance.get(0).getScore() > byRelevance.get(1).getScore());
+    }
+
+    @Test
+    @DisplayName("Get all items with bookings and comments")
+    void testGetAllItemsWithBookingsAndComments() {
+        UserDto ownerDto = userService.create(userDto1);
+        UserDto bookerDto = userService.create(userDto2);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto);
+        ItemDto newItemDto1 = itemService.create(ownerDto.getId(), itemDto1);
+        LocalDateTime now = LocalDateTime.now();
+
+        BookingDto pastBooking = bookingService.create(
+                new BookingInputDto(newItemDto.getId(), now.minusDays(3), now.minusDays(2)), bookerDto.getId());
+        bookingService.update(pastBooking.getId(), ownerDto.getId(), true);
+        BookingDto nextBooking = bookingService.create(
+                new BookingInputDto(newItemDto.getId(), now.plusDays(2), now.plusDays(3)), bookerDto.getId());
+        bookingService.update(nextBooking.getId(), ownerDto.getId(), true);
+        BookingDto laterBooking = bookingService.create(
+                new BookingInputDto(newItemDto.getId(), now.plusDays(4), now.plusDays(5)), bookerDto.getId());
+        bookingService.update(laterBooking.getId(), ownerDto.getId(), true);
+
+        CommentDto commentDto = CommentDto.builder().text("Comment").build();
+        itemService.addComment(commentDto, newItemDto.getId(), bookerDto.getId());
+
+        List<ItemDto> items = itemService.getAll(ownerDto.getId(), 0, 10);
+
+        assertEquals(2, items.size());
+        assertEquals(pastBooking.getId(), items.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), items.get(0).getNextBooking().getId());
+        assertEquals(bookerDto.getId(), items.get(0).getNextBooking().getBookerId());
+        assertEquals(1, items.get(0).getComments().size());
+        assertNull(items.get(1).getLastBooking());
+        assertNull(items.get(1).getNextBooking());
+        assertEquals(0, items.get(1).getComments().size());
+
+        ItemDto returnItemDto = itemService.getById(newItemDto.getId(), ownerDto.getId());
+        assertEquals(pastBooking.getId(), returnItemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), returnItemDto.getNextBooking().getId());
+        assertEquals(newItemDto1.getId(), items.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Get item availability")
+    void testGetItemAvailability() {
+        UserDto ownerDto = userService.create(userDto1);
+        UserDto bookerDto = userService.create(userDto2);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto);
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+        BookingDto booking = bookingService.create(new BookingInputDto(newItemDto.getId(),
+                from.plusHours(2).plusMinutes(30), from.plusHours(4)), bookerDto.getId());
+        ItemAvailabilityDto availability = itemService.getAvailability(
+                newItemDto.getId(), from, from.plusHours(6), "hour");
+        assertEquals(1, availability.getFree().size());
+        assertEquals(0, availability.getBusy().size());
+
+        bookingService.update(booking.getId(), ownerDto.getId(), true);
+        availability = itemService.getAvailability(newItemDto.getId(), from, from.plusHours(6), "hour");
+
+        assertEquals(Granularity.HOUR, availability.getGranularity());
+        assertEquals(1, availability.getBusy().size());
+        assertEquals(from.plusHours(2), availability.getBusy().get(0).getStart());
+        assertEquals(from.plusHours(4), availability.getBusy().get(0).getEnd());
+        assertEquals(2, availability.getFree().size());
+        assertEquals(from, availability.getFree().get(0).getStart());
+        assertEquals(from.plusHours(6), availability.getFree().get(1).getEnd());
+
+        assertThrows(InvalidAvailabilityRequestException.class, () -> itemService.getAvailability(
+                newItemDto.getId(), from, from.plusYears(5), "minute"));
+    }
+
+    @Test
+    @DisplayName("Get items free in period")
+    void testGetFreeItems() {
+        UserDto ownerDto = userService.create(userDto1);
+        UserDto bookerDto = userService.create(userDto2);
+        ItemDto newItemDto = itemService.create(ownerDto.getId(), itemDto);
+        ItemDto newItemDto1 = itemService.create(ownerDto.getId(), itemDto1);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BookingDto booking = bookingService.create(
+                new BookingInputDto(newItemDto.getId(), start, start.plusDays(2)), bookerDto.getId());
+        assertEquals(2, itemService.getFreeItems("", start, start.plusDays(1), 0, 10).size());
+
+        bookingService.update(booking.getId(), ownerDto.getId(), true);
+        List<ItemDto> items = itemService.getFreeItems("", start, start.plusDays(1), 0, 10);
+        assertEquals(1, items.size());
+        assertEquals(newItemDto1.getId(), items.get(0).getId());
+        assertEquals(List.of(), itemService.getFreeItems("itemDto1", start, start.plusDays(1), 1, 10));
+        assertEquals(1, itemService.getFreeItems("description", start.plusDays(3), start.plusDays(4), 1, 10).size());
+
+        newItemDto1.setAvailable(false);
+        itemService.update(newItemDto1, newItemDto1.getId(), ownerDto.getId());
+        assertEquals(List.of(), itemService.getFreeItems("", start, start.plusDays(1), 0, 10));
+    }
+
     @Test
     @DisplayName("Exception when create comment when user not booker")
     void testExceptionWhenCreateCommentWhenUserNotBooker() {
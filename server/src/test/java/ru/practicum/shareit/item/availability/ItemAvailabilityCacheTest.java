@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityCacheTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemAvailabilityCache(bookingRepository, 2);
+    }
+
+    @Test
+    @DisplayName("Least recently read calendars are evicted")
+    void testLeastRecentlyReadCalendarsAreEvicted() {
+        when(bookingRepository.findPeriodsByItemIdAndStatus(anyLong(), eq(Status.APPROVED))).thenReturn(List.of());
+
+        AvailabilityCalendar first = cache.get(1L);
+        cache.get(2L);
+        assertSame(first, cache.get(1L));
+        cache.get(3L);
+
+        assertSame(first, cache.get(1L));
+        cache.get(2L);
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatus(2L, Status.APPROVED);
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatus(1L, Status.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Calendar loaded across an invalidation is not kept")
+    void testCalendarLoadedAcrossInvalidationIsNotKept() {
+        when(bookingRepository.findPeriodsByItemIdAndStatus(1L, Status.APPROVED)).thenAnswer(invocation -> {
+            cache.invalidate(1L);
+            return List.of();
+        }).thenReturn(List.of());
+
+        AvailabilityCalendar stale = cache.get(1L);
+        AvailabilityCalendar fresh = cache.get(1L);
+
+        assertNotSame(stale, fresh);
+        assertSame(fresh, cache.get(1L));
+    }
+}
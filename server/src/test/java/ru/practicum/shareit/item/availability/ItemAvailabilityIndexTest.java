@@ -0,0 +1,203 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemOwnerView;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityIndex index;
+
+    private final User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+
+    private final User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemAvailabilityIndex(itemRepository, bookingRepository, 24);
+    }
+
+    @Test
+    @DisplayName("Put items and bookings")
+    void testPutItemsAndBookings() {
+        Item item1 = item(1L, true);
+        Item item2 = item(2L, true);
+        index.putItem(item1);
+        index.putItem(item2);
+        index.putItem(item(3L, false));
+
+        Booking booking = Booking.builder()
+                .id(1L)
+                .item(item1)
+                .booker(booker)
+                .start(NOW.plusHours(1))
+                .end(NOW.plusDays(3))
+                .status(Status.WAITING)
+                .build();
+        index.putBooking(booking);
+        assertEquals(List.of(1L, 2L), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+
+        booking.setStatus(Status.APPROVED);
+        index.putBooking(booking);
+        assertEquals(List.of(2L), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+        assertEquals(List.of(2L), index.findFree(null, NOW.minusDays(5), NOW.plusDays(10), 0, 10));
+        assertEquals(List.of(1L, 2L), index.findFree(null, NOW.minusDays(5), NOW.plusHours(1), 0, 10));
+        assertEquals(List.of(1L, 2L), index.findFree(null, NOW.plusDays(3), NOW.plusDays(4), 0, 10));
+        assertEquals(List.of(2L), index.findFree(List.of(2L, 3L), NOW.minusDays(1), NOW.plusDays(1), 0, 10));
+        assertEquals(List.of(), index.findFree(null, NOW, NOW.plusDays(1), 1, 10));
+
+        booking.setStatus(Status.CANCELED);
+        index.putBooking(booking);
+        assertEquals(List.of(1L, 2L), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+
+        item2.setAvailable(false);
+        index.putItem(item2);
+        index.removeItem(item1.getId());
+        assertEquals(List.of(), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+    }
+
+    @Test
+    @DisplayName("Remove user items and bookings")
+    void testRemoveUserItemsAndBookings() {
+        Item item1 = item(1L, true);
+        index.putItem(item1);
+        index.putItem(item(2L, true));
+        index.putBooking(Booking.builder().id(1L).item(item1).booker(booker)
+                .start(NOW).end(NOW.plusDays(1)).status(Status.APPROVED).build());
+        assertEquals(List.of(2L), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+
+        index.removeUser(booker.getId());
+        assertEquals(List.of(1L, 2L), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+
+        index.removeUser(owner.getId());
+        assertEquals(List.of(), index.findFree(null, NOW, NOW.plusDays(1), 0, 10));
+    }
+
+    @Test
+    @DisplayName("Long bookings and windows")
+    void testLongBookingsAndWindows() {
+        Item item1 = item(1L, true);
+        Item item2 = item(2L, true);
+        index.putItem(item1);
+        index.putItem(item2);
+        Booking decade = Booking.builder().id(1L).item(item1).booker(booker)
+                .start(NOW).end(NOW.plusYears(10)).status(Status.APPROVED).build();
+        index.putBooking(decade);
+        index.putBooking(Booking.builder().id(2L).item(item2).booker(booker)
+                .start(NOW.plusYears(500)).end(NOW.plusYears(500).plusDays(1)).status(Status.APPROVED).build());
+
+        assertEquals(List.of(2L), index.findFree(null, NOW.plusYears(5), NOW.plusYears(5).plusDays(1), 0, 10));
+        assertEquals(List.of(1L, 2L), index.findFree(null, NOW.plusYears(11), NOW.plusYears(12), 0, 10));
+        assertEquals(List.of(), index.findFree(null, NOW.minusYears(1000), NOW.plusYears(1000), 0, 10));
+
+        decade.setStatus(Status.CANCELED);
+        index.putBooking(decade);
+        assertEquals(List.of(1L), index.findFree(null, NOW.minusYears(1000), NOW.plusYears(1000), 0, 10));
+    }
+
+    @Test
+    @DisplayName("Item id beyond int switches the index off")
+    void testItemIdBeyondIntSwitchesIndexOff() {
+        when(itemRepository.findAvailableItemOwners())
+                .thenReturn(List.of());
+        when(bookingRepository.findTimelineEntries(anyCollection()))
+                .thenReturn(List.of());
+        index.rebuild();
+        index.putItem(item(1L, true));
+        assertTrue(index.isReady());
+
+        index.putItem(item(Integer.MAX_VALUE + 1L, true));
+        assertFalse(index.isReady());
+    }
+
+    @Test
+    @DisplayName("Free items match brute force scan")
+    void testFreeItemsMatchBruteForceScan() {
+        Random random = new Random(42);
+        List<ItemOwnerView> items = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            if (random.nextInt(10) > 0) {
+                items.add(itemOwner(id));
+            }
+        }
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            LocalDateTime start = NOW.plusMinutes(random.nextInt(60 * 24 * 60));
+            entries.add(new TimelineEntry(id, 1L + random.nextInt(300), owner.getId(), booker.getId(),
+                    start, start.plusMinutes(1 + random.nextInt(60 * 24 * 5)), Status.APPROVED));
+        }
+        when(itemRepository.findAvailableItemOwners())
+                .thenReturn(items);
+        when(bookingRepository.findTimelineEntries(anyCollection()))
+                .thenReturn(entries);
+        index.rebuild();
+        assertTrue(index.isReady());
+
+        List<Long> candidates = LongStream.rangeClosed(1, 300).filter(id -> id % 3 != 0).boxed()
+                .collect(Collectors.toList());
+        for (int i = 0; i < 200; i++) {
+            boolean restricted = i % 2 == 1;
+            LocalDateTime start = NOW.plusMinutes(random.nextInt(60 * 24 * 60));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(60 * 24 * 10));
+            List<Long> expected = items.stream()
+                    .map(ItemOwnerView::getId)
+                    .filter(id -> !restricted || candidates.contains(id))
+                    .filter(id -> entries.stream().noneMatch(entry -> entry.getItemId().equals(id)
+                            && entry.getStart().isBefore(end) && entry.getEnd().isAfter(start)))
+                    .skip(2)
+                    .limit(20)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.findFree(restricted ? candidates : null, start, end, 2, 20));
+        }
+    }
+
+    private Item item(Long id, boolean available) {
+        return Item.builder().id(id).name("item").description("item").available(available)
+                .ownerId(owner.getId()).build();
+    }
+
+    private ItemOwnerView itemOwner(Long id) {
+        return new ItemOwnerView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return owner.getId();
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.pointer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.booking.timeline.TimelineEntry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemBookingPointersTest {
+
+    @Mock
+    private ItemBookingPointerRepository pointerRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingTimelineIndex bookingTimelineIndex;
+
+    private ItemBookingPointers itemBookingPointers;
+
+    @BeforeEach
+    void setUp() {
+        itemBookingPointers = new ItemBookingPointers(pointerRepository, bookingRepository, bookingTimelineIndex);
+    }
+
+    @Test
+    @DisplayName("Refresh started next booking into last")
+    @SuppressWarnings("unchecked")
+    void testRefreshStartedNextBookingIntoLast() {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+        ItemBookingPointer next = ItemBookingPointer.builder()
+                .itemId(1L)
+                .kind(PointerKind.NEXT)
+                .bookingId(10L)
+                .bookerId(2L)
+                .start(start)
+                .end(start.plusDays(1))
+                .build();
+        when(pointerRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(new ArrayList<>(List.of(next)));
+        when(bookingTimelineIndex.isReady())
+                .thenReturn(true);
+        when(bookingTimelineIndex.findLast(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new TimelineEntry(10L, 1L, 3L, 2L, start, start.plusDays(1), Status.APPROVED)));
+        when(bookingTimelineIndex.findNext(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        itemBookingPointers.refresh(List.of(1L));
+
+        ArgumentCaptor<List<ItemBookingPointer>> saved = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Collection<ItemBookingPointer>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(pointerRepository).saveAll(saved.capture());
+        verify(pointerRepository).deleteAll(deleted.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(PointerKind.LAST, saved.getValue().get(0).getKind());
+        assertEquals(10L, saved.getValue().get(0).getBookingId());
+        assertEquals(List.of(next), new ArrayList<>(deleted.getValue()));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemNameSuggesterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemNameSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ItemNameSuggester(itemRepository);
+        suggester.rebuild();
+    }
+
+    @Test
+    @DisplayName("Suggest most common names for a prefix")
+    void testSuggestMostCommonNames() {
+        suggester.put(item(1L, 1L, "Дрель", true));
+        suggester.put(item(2L, 1L, "Дрезина", true));
+        suggester.put(item(3L, 2L, "дрель", true));
+        suggester.put(item(4L, 2L, "Дрель  ударная", true));
+        suggester.put(item(5L, 2L, "Дрожжи", false));
+        suggester.put(item(6L, 2L, "Ёлка", true));
+
+        assertEquals(List.of("Дрель", "Дрезина", "Дрель  ударная"), suggester.suggest("др", 10));
+        assertEquals(List.of("Дрель"), suggester.suggest("ДРЕ", 1));
+        assertEquals(List.of("Дрель  ударная"), suggester.suggest("дрель у", 10));
+        assertEquals(List.of("Ёлка"), suggester.suggest("ел", 10));
+        assertEquals(List.of(), suggester.suggest("дрож", 10));
+        assertEquals(List.of(), suggester.suggest("  ", 10));
+    }
+
+    @Test
+    @DisplayName("Update and remove names")
+    void testUpdateAndRemoveNames() {
+        suggester.put(item(1L, 1L, "Дрель", true));
+        suggester.put(item(2L, 2L, "Дрезина", true));
+
+        suggester.put(item(1L, 1L, "Шуруповёрт", true));
+        assertEquals(List.of("Дрезина"), suggester.suggest("дре", 10));
+        assertEquals(List.of("Шуруповёрт"), suggester.suggest("шуруповер", 10));
+
+        suggester.put(item(2L, 2L, "Дрезина", false));
+        assertEquals(List.of(), suggester.suggest("дре", 10));
+
+        suggester.put(item(2L, 2L, "Дрезина", true));
+        suggester.remove(2L);
+        assertEquals(List.of(), suggester.suggest("дре", 10));
+
+        suggester.removeOwner(1L);
+        assertEquals(List.of(), suggester.suggest("шур", 10));
+    }
+
+    @Test
+    @DisplayName("Suggestions match brute force count")
+    void testSuggestionsMatchBruteForceCount() {
+        String[] names = {"пила", "пилка", "пилот", "пирог", "пол", "полка", "п", "пи", "a", "ab", "abc"};
+        Random random = new Random(42);
+        Map<Long, String> items = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            long id = 1 + random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                suggester.remove(id);
+                items.remove(id);
+            } else {
+                String name = names[random.nextInt(names.length)];
+                suggester.put(item(id, 1L, name, true));
+                items.put(id, name);
+            }
+        }
+
+        for (String prefix : List.of("п", "пи", "пил", "пол", "a", "abc", "x")) {
+            Map<String, Long> counts = items.values().stream()
+                    .filter(name -> name.startsWith(prefix))
+                    .collect(Collectors.groupingBy(name -> name, Collectors.counting()));
+            List<String> expected = counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                    .limit(4)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            assertEquals(expected, suggester.suggest(prefix, 4), prefix);
+        }
+    }
+
+    private Item item(Long id, Long ownerId, String name, boolean available) {
+        return Item.builder().id(id).ownerId(ownerId).name(name).description("description").available(available)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares the PostgreSQL full-text backend with the substring scan on a million items. Needs a PostgreSQL
+ * database whose schema it recreates, so it only runs when {@code shareit.search.benchmark.url} is set:
+ * {@code mvn test -Dtest=ItemSearchBenchmarkTest -Dshareit.search.benchmark.url=jdbc:postgresql://...}.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${shareit.search.benchmark.url}",
+        "spring.datasource.username=${shareit.search.benchmark.username:postgres}",
+        "spring.datasource.password=${shareit.search.benchmark.password:postgres}",
+        "spring.sql.init.platform=postgresql",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "shareit.booking.archive.partitioned=true",
+        "shareit.item.search.backend=postgres"
+})
+@EnabledIfSystemProperty(named = "shareit.search.benchmark.url", matches = "jdbc:postgresql:.+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ItemSearchBenchmarkTest {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int RUNS = 20;
+    private static final List<String> QUERIES = List.of("дрель", "пила bosch", "отвёртка", "makita", "молоток");
+    private static final String MISSING = "перфоратор";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeAll
+    void fill() {
+        jdbcTemplate.update("insert into users (user_name, user_email) values ('benchmark', 'benchmark@mail.ru')");
+        jdbcTemplate.update("insert into items (item_name, item_description, item_available, item_owner_id) " +
+                "select (array['Дрель', 'Пила', 'Отвёртка', 'Молоток', 'Рубанок', 'Стремянка'])[1 + g % 6] " +
+                "  || ' ' || (array['Bosch', 'Makita', 'Интерскол', 'Зубр', 'DeWalt'])[1 + (g / 6) % 5] " +
+                "  || ' ' || g, " +
+                " 'Инструмент номер ' || md5(g::text), " +
+                " g % 10 <> 0, " +
+                " (select max(user_id) from users) " +
+                "from generate_series(1, ?) g", ITEMS);
+        jdbcTemplate.execute("analyze items");
+    }
+
+    @Test
+    @DisplayName("Full-text search against substring scan")
+    void testFullTextAgainstSubstringScan() {
+        ItemSearchBackend like = new LikeItemSearchBackend(itemRepository);
+        ItemSearchBackend postgres = new PostgresItemSearchBackend(itemRepository);
+        for (String query : QUERIES) {
+            assertFalse(like.search(query, 0, 20).isEmpty());
+            assertFalse(postgres.search(query, 0, 20).isEmpty());
+            log.info("\"{}\": like {}, postgres {}", query, measure(like, query), measure(postgres, query));
+        }
+        log.info("\"{}\" (no hits): like {}, postgres {}", MISSING, measure(like, MISSING), measure(postgres, MISSING));
+    }
+
+    /**
+     * Median and maximum of {@link #RUNS} searches for the first page, in milliseconds.
+     */
+    private String measure(ItemSearchBackend backend, String query) {
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            backend.search(query, 0, 20);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return String.format("median %.1f ms, max %.1f ms", times[RUNS / 2] / 1e6, times[RUNS - 1] / 1e6);
+    }
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemTextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Scan the table until the index is built")
+    void testScanTableUntilIndexIsBuilt() {
+        ItemSearchIndex notBuilt = new ItemSearchIndex(itemRepository);
+        when(itemRepository.findIdsBySearch("дрель", 10, 5))
+                .thenReturn(List.of(7L));
+        assertFalse(notBuilt.isReady());
+        assertEquals(List.of(7L), notBuilt.search("Дрель", 5, 10));
+    }
+
+    @Test
+    @DisplayName("Tokenize Cyrillic and Latin words")
+    void testTokenize() {
+        assertEquals(List.of("дрель", "bosch", "500", "вт", "еж"),
+                ItemTokenizer.tokenize("Дрель BOSCH-500 вт, ёж!"));
+        assertEquals(List.of(), ItemTokenizer.tokenize("  ,.- "));
+    }
+
+    @Test
+    @DisplayName("Find items by word prefixes")
+    void testFindItemsByWordPrefixes() {
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная дрель", true));
+        index.put(item(2L, 1L, "Отвёртка", "Крестовая отвёртка", true));
+        index.put(item(3L, 2L, "Дрель ударная", "Для бетона", true));
+        index.put(item(4L, 2L, "Перфоратор", "Для бетона", false));
+
+        assertEquals(List.of(1L, 3L), index.search("ДРЕЛЬ", 0, 10));
+        assertEquals(List.of(1L, 3L), index.search("дрел", 0, 10));
+        assertEquals(List.of(3L), index.search("дрель бетон", 0, 10));
+        assertEquals(List.of(2L), index.search("отвертка", 0, 10));
+        assertEquals(List.of(3L), index.search("бетона", 0, 10));
+        assertEquals(List.of(), index.search("перфоратор", 0, 10));
+        assertEquals(List.of(), index.search("рель", 0, 10));
+        assertEquals(List.of(3L), index.search("дрель", 1, 10));
+        assertEquals(List.of(1L), index.search("дрель", 0, 1));
+    }
+
+    @Test
+    @DisplayName("Update and remove items")
+    void testUpdateAndRemoveItems() {
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", true));
+        index.put(item(2L, 2L, "Дрель", "Сетевая", true));
+
+        index.put(item(1L, 1L, "Шуруповёрт", "Аккумуляторный", true));
+        assertEquals(List.of(2L), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("шуруповерт", 0, 10));
+
+        index.put(item(2L, 2L, "Дрель", "Сетевая", false));
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+
+        index.put(item(2L, 2L, "Дрель", "Сетевая", true));
+        index.remove(2L);
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+
+        index.removeOwner(1L);
+        assertEquals(List.of(), index.search("шуруповерт", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Index ids beyond int range")
+    void testIndexIdsBeyondIntRange() {
+        long large = Integer.MAX_VALUE + 1L;
+        index.put(item(large, 1L, "Дрель", "Сетевая", true));
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", true));
+
+        assertEquals(List.of(1L, large), index.search("дрель", 0, 10));
+        index.remove(large);
+        assertEquals(List.of(1L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Search matches brute force scan")
+    void testSearchMatchesBruteForceScan() {
+        String[] words = {"дрель", "дрезина", "пила", "пилка", "молоток", "bosch", "makita", "ёлка"};
+        Random random = new Random(42);
+        List<ItemTextView> items = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            items.add(itemText(id, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                    words[random.nextInt(words.length)]));
+        }
+        when(itemRepository.findAvailableItemTexts())
+                .thenReturn(items);
+        index.rebuild();
+        assertTrue(index.isReady());
+
+        String[] queries = {"дре", "пил", "елк", "bosch пилка", "мол дрель", "makita", "x"};
+        for (String query : queries) {
+            List<String> tokens = ItemTokenizer.tokenize(query);
+            List<Long> expected = items.stream()
+                    .filter(item -> tokens.stream().allMatch(token ->
+                            ItemTokenizer.tokenize(item.getName() + " " + item.getDescription()).stream()
+                                    .anyMatch(word -> word.startsWith(token))))
+                    .map(ItemTextView::getId)
+                    .skip(3)
+                    .limit(20)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.search(query, 3, 20));
+        }
+    }
+
+    @Test
+    @DisplayName("Rank matches by BM25 with boosted names")
+    void testRankMatchesByBm25() {
+        index.put(item(1L, 1L, "Чехол", "Для дрели", true));
+        index.put(item(2L, 1L, "Дрель", "Аккумуляторная", true));
+        index.put(item(3L, 2L, "Дрель ударная", "Дрель для бетона, дрель мощная", true));
+        index.put(item(4L, 2L, "Пила", "Не дрель", true));
+
+        List<ItemSearchHit> hits = index.searchByRelevance("дрель", 0, 10);
+        assertEquals(List.of(2L, 3L, 4L), hits.stream().map(ItemSearchHit::getItemId).collect(Collectors.toList()));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertTrue(hits.get(1).getScore() > hits.get(2).getScore());
+        assertTrue(hits.get(2).getScore() > 0);
+        assertEquals(List.of(4L), index.searchByRelevance("дрель", 2, 10).stream()
+                .map(ItemSearchHit::getItemId).collect(Collectors.toList()));
+        assertEquals(List.of(), index.searchByRelevance("дрель", 3, 10));
+    }
+
+    @Test
+    @DisplayName("Bounded ranking matches full ranking")
+    void testBoundedRankingMatchesFullRanking() {
+        String[] words = {"дрель", "дрезина", "пила", "пилка", "молоток", "bosch", "makita"};
+        Random random = new Random(7);
+        for (long id = 1; id <= 300; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int i = random.nextInt(6); i >= 0; i--) {
+                description.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            index.put(item(id, 1L, words[random.nextInt(words.length)], description.toString(), true));
+        }
+
+        for (String query : List.of("дре", "пила", "bosch дрель", "мол")) {
+            List<ItemSearchHit> all = index.searchByRelevance(query, 0, 1000);
+            assertEquals(index.search(query, 0, 1000),
+                    all.stream().map(ItemSearchHit::getItemId).sorted().collect(Collectors.toList()));
+            for (int i = 1; i < all.size(); i++) {
+                assertTrue(all.get(i - 1).getScore() > all.get(i).getScore()
+                        || all.get(i - 1).getScore().equals(all.get(i).getScore())
+                        && all.get(i - 1).getItemId() < all.get(i).getItemId());
+            }
+            List<Long> expected = all.stream().skip(5).limit(10).map(ItemSearchHit::getItemId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.searchByRelevance(query, 5, 10).stream()
+                    .map(ItemSearchHit::getItemId).collect(Collectors.toList()));
+        }
+    }
+
+    private Item item(Long id, Long ownerId, String name, String description, boolean available) {
+        return Item.builder().id(id).ownerId(ownerId).name(name).description(description).available(available)
+                .build();
+    }
+
+    private ItemTextView itemText(Long id, String name, String description) {
+        return new ItemTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
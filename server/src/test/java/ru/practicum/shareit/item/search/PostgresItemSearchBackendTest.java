@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PostgresItemSearchBackendTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    @DisplayName("Build prefix tsquery from words")
+    void testBuildPrefixTsQuery() {
+        assertEquals("дрель:* & bosch:* & 500:*", PostgresItemSearchBackend.toTsQuery("Дрель 'BOSCH' | 500 дрель"));
+        assertEquals("", PostgresItemSearchBackend.toTsQuery(" & ! "));
+    }
+
+    @Test
+    @DisplayName("Search by tsquery in rank order")
+    void testSearchByTsQuery() {
+        when(itemRepository.findIdsByFullText("елка:*", 10, 20))
+                .thenReturn(List.of(3L, 1L));
+        assertEquals(List.of(3L, 1L), new PostgresItemSearchBackend(itemRepository).search("Ёлка", 20, 10));
+    }
+
+    @Test
+    @DisplayName("Skip the database for queries without words")
+    void testSkipDatabaseForQueriesWithoutWords() {
+        assertEquals(List.of(), new PostgresItemSearchBackend(itemRepository).search("!!", 0, 10));
+        verifyNoInteractions(itemRepository);
+    }
+}
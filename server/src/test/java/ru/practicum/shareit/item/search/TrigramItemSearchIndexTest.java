@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TrigramItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private TrigramItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramItemSearchIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Scan the table until the index is built")
+    void testScanTableUntilIndexIsBuilt() {
+        TrigramItemSearchIndex notBuilt = new TrigramItemSearchIndex(itemRepository);
+        when(itemRepository.findIdsBySearch("рель", 10, 5))
+                .thenReturn(List.of(7L));
+        assertFalse(notBuilt.isReady());
+        assertEquals(List.of(7L), notBuilt.search("РЕЛЬ", 5, 10));
+    }
+
+    @Test
+    @DisplayName("Find items by substrings")
+    void testFindItemsBySubstrings() {
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная дрель", true));
+        index.put(item(2L, 1L, "Отвёртка", "Крестовая", true));
+        index.put(item(3L, 2L, "Дрель ударная", "Для бетона", true));
+        index.put(item(4L, 2L, "Перфоратор", "Для бетона", false));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L, 3L), index.search("дрел", 0, 10));
+        assertEquals(List.of(1L, 3L), index.search("РЕЛ", 0, 10));
+        assertEquals(List.of(1L), index.search("ная дрель", 0, 10));
+        assertEquals(List.of(2L), index.search("вёр", 0, 10));
+        assertEquals(List.of(2L), index.search("ёрт", 0, 10));
+        assertEquals(List.of(), index.search("тер", 0, 10));
+        assertEquals(List.of(), index.search("перфоратор", 0, 10));
+        assertEquals(List.of(), index.search("дрельдля", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("к", 0, 10));
+        assertEquals(List.of(2L), index.search("к", 1, 10));
+        assertEquals(List.of(), index.search("к", 5, 10));
+        assertEquals(List.of(3L), index.search("дрел", 1, 10));
+    }
+
+    @Test
+    @DisplayName("Update and remove items")
+    void testUpdateAndRemoveItems() {
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", true));
+        index.put(item(2L, 2L, "Дрель", "Сетевая", true));
+
+        index.put(item(1L, 1L, "Шуруповёрт", "Аккумуляторный", true));
+        assertEquals(List.of(2L), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("шуруп", 0, 10));
+
+        index.put(item(2L, 2L, "Дрель", "Сетевая", false));
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+
+        index.put(item(2L, 2L, "Дрель", "Сетевая", true));
+        index.remove(2L);
+        assertEquals(List.of(), index.search("др", 0, 10));
+
+        index.removeOwner(1L);
+        assertEquals(List.of(), index.search("ёрт", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Index ids beyond int range")
+    void testIndexIdsBeyondIntRange() {
+        long large = Integer.MAX_VALUE + 1L;
+        index.put(item(large, 1L, "Дрель", "Сетевая", true));
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", true));
+
+        assertEquals(List.of(1L, large), index.search("рель", 0, 10));
+        index.remove(large);
+        assertEquals(List.of(1L), index.search("рель", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Rank matches by BM25 with boosted names")
+    void testRankMatchesByBm25() {
+        index.put(item(1L, 1L, "Чехол", "Для дрели", true));
+        index.put(item(2L, 1L, "Дрель", "Ударная дрель", true));
+        index.put(item(3L, 2L, "Дрель", "Сетевая", true));
+        index.put(item(4L, 2L, "Пила", "Дисковая", true));
+
+        List<ItemSearchHit> hits = index.searchByRelevance("дрел", 0, 10);
+
+        assertEquals(List.of(2L, 3L, 1L), hits.stream().map(ItemSearchHit::getItemId).collect(Collectors.toList()));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertTrue(hits.get(1).getScore() > hits.get(2).getScore());
+        assertEquals(List.of(1L), index.searchByRelevance("ДРЕЛ", 2, 10).stream()
+                .map(ItemSearchHit::getItemId).collect(Collectors.toList()));
+        assertEquals(List.of(), index.searchByRelevance("др", 3, 10));
+        assertEquals(List.of(2L), index.searchByRelevance("ударная дрель", 0, 10).stream()
+                .map(ItemSearchHit::getItemId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Search matches substring scan")
+    void testSearchMatchesSubstringScan() {
+        String alphabet = "абвгдеёжз ab";
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 400; id++) {
+            Item item = item(id, 1L + random.nextInt(3), randomText(random, alphabet, 12),
+                    randomText(random, alphabet, 20), random.nextInt(5) > 0);
+            items.add(item);
+            index.put(item);
+        }
+        index.removeOwner(3L);
+
+        for (int i = 0; i < 300; i++) {
+            String query = randomText(random, alphabet, 1 + random.nextInt(4));
+            List<Long> expected = items.stream()
+                    .filter(item -> item.getAvailable() && item.getOwnerId() != 3L)
+                    .filter(item -> item.getName().toLowerCase().contains(query)
+                            || item.getDescription().toLowerCase().contains(query))
+                    .map(Item::getId)
+                    .skip(2)
+                    .limit(15)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.search(query, 2, 15), query);
+        }
+    }
+
+    private String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private Item item(Long id, Long ownerId, String name, String description, boolean available) {
+        return Item.builder().id(id).ownerId(ownerId).name(name).description(description).available(available)
+                .build();
+    }
+}
@@ -8,7 +8,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -31,6 +33,12 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private UserService userService;
 
     private final UserDto userDto = UserDto
@@ -49,7 +57,7 @@ public class UserServiceImplTest {
 
     @BeforeEach
     void beforeEach() {
-        userService = new UserServiceImp(userRepository);
+        userService = new UserServiceImp(userRepository, itemBookingPointers, eventPublisher);
     }
 
     @Test